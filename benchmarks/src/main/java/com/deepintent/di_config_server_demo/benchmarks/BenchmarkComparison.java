@@ -0,0 +1,106 @@
+package com.deepintent.di_config_server_demo.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files ({@code -rf json}) benchmark by benchmark and parameter set, for both
+ * the primary score and, when run with {@code -prof gc}, the allocation per operation.
+ * <p>
+ * Usage: {@code BenchmarkComparison <baseline.json> <candidate.json> [threshold-percent]}. Exits with 1 if
+ * any score or allocation got worse by more than the threshold (default 5%).
+ */
+public final class BenchmarkComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private BenchmarkComparison() {
+    }
+
+    record Result(String mode, String unit, double score, double error, Double allocation) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json> [threshold-percent]");
+            System.exit(2);
+        }
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> candidate = read(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 5.0;
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s %12s %12s %9s%n",
+                "benchmark", "baseline", "candidate", "delta", "alloc base", "alloc cand", "delta");
+        for (Map.Entry<String, Result> entry : baseline.entrySet()) {
+            Result before = entry.getValue();
+            Result after = candidate.get(entry.getKey());
+            if (after == null) {
+                System.out.printf("%-90s %14.3f %14s%n", entry.getKey(), before.score(), "missing");
+                continue;
+            }
+
+            double scoreDelta = percent(before.score(), after.score());
+            // Throughput is better when higher, every other mode when lower
+            boolean higherIsBetter = "thrpt".equals(before.mode());
+            boolean slower = (higherIsBetter ? -scoreDelta : scoreDelta) > threshold
+                    && Math.abs(after.score() - before.score()) > before.error() + after.error();
+
+            String allocationDelta = "";
+            boolean allocates = false;
+            if (before.allocation() != null && after.allocation() != null) {
+                double delta = percent(before.allocation(), after.allocation());
+                allocationDelta = String.format("%+8.1f%%", delta);
+                allocates = delta > threshold;
+            }
+
+            if (slower || allocates) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %12s %12s %9s%s%n",
+                    entry.getKey(), before.score(), after.score(), scoreDelta,
+                    format(before.allocation()), format(after.allocation()), allocationDelta,
+                    slower || allocates ? "  REGRESSION" : "");
+        }
+        candidate.keySet().stream()
+                .filter(key -> !baseline.containsKey(key))
+                .forEach(key -> System.out.printf("%-90s %14s %14.3f%n", key, "new", candidate.get(key).score()));
+
+        System.out.printf("%n%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String key = run.path("benchmark").asText().replaceFirst("^.*\\.benchmarks\\.", "")
+                    + (params.isEmpty() ? "" : " " + params);
+
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode allocation = run.path("secondaryMetrics").path(ALLOCATION);
+            results.put(key, new Result(
+                    run.path("mode").asText(),
+                    primary.path("scoreUnit").asText(),
+                    primary.path("score").asDouble(),
+                    primary.path("scoreError").asDouble(0),
+                    allocation.isMissingNode() ? null : allocation.path("score").asDouble()));
+        }
+        return results;
+    }
+
+    private static double percent(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+
+    private static String format(Double allocation) {
+        return allocation != null ? String.format("%.0f B", allocation) : "-";
+    }
+}
@@ -0,0 +1,59 @@
+package com.deepintent.di_config_server_demo.benchmarks;
+
+import com.deepintent.di_config_server_demo.DiConfigServerDemoApplication;
+import com.deepintent.di_config_server_demo.common.repository.GitRefreshScheduler;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A config server booted on a random port against a {@link SyntheticConfigRepository}.
+ */
+public final class ConfigServerFixture implements AutoCloseable {
+
+    /**
+     * {@code composite}: the config server's own git repository; {@code worktree} and {@code object}: the
+     * background-refreshed mirror in the respective snapshot mode.
+     */
+    public enum Backend {
+        COMPOSITE, WORKTREE, OBJECT
+    }
+
+    private final Path directory;
+    private final ConfigurableApplicationContext context;
+
+    public ConfigServerFixture(Backend backend, boolean environmentCache,
+                               int services, int keysPerFile, int commonDepth) throws Exception {
+        this.directory = Files.createTempDirectory("di-config-server-bench");
+        Path origin = SyntheticConfigRepository.create(directory.resolve("origin"), services, keysPerFile, commonDepth);
+        this.context = new SpringApplicationBuilder(DiConfigServerDemoApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.cloud.config.server.composite[0].uri=" + origin.toUri(),
+                        "spring.cloud.config.server.composite[0].basedir=" + directory.resolve("clone"),
+                        "spring.cloud.config.server.composite[0].default-label=" + SyntheticConfigRepository.LABEL,
+                        "deepintent.config-server.git-refresh.enabled=" + (backend != Backend.COMPOSITE),
+                        "deepintent.config-server.git-refresh.snapshot-mode=" + (backend == Backend.OBJECT ? "object" : "worktree"),
+                        "deepintent.config-server.git-refresh.basedir=" + directory.resolve("refresh"),
+                        "deepintent.config-server.environment-cache.enabled=" + environmentCache,
+                        "deepintent.config-server.rendered-responses.enabled=false",
+                        "deepintent.config-server.request-logging.mode=off")
+                .run();
+        context.getBeanProvider(GitRefreshScheduler.class)
+                .ifAvailable(scheduler -> scheduler.refresh().orTimeout(60, TimeUnit.SECONDS).join());
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory.toFile());
+    }
+}
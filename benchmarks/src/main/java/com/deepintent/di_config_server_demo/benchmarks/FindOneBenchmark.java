@@ -0,0 +1,74 @@
+package com.deepintent.di_config_server_demo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code EnvironmentRepository.findOne} on the primary (decorated composite) repository, cycling through
+ * the services of the synthetic repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class FindOneBenchmark {
+
+    @Param({"COMPOSITE", "WORKTREE", "OBJECT"})
+    public ConfigServerFixture.Backend backend;
+
+    @Param({"true", "false"})
+    public boolean environmentCache;
+
+    @Param({"50"})
+    public int services;
+
+    @Param({"50"})
+    public int keysPerFile;
+
+    @Param({"3"})
+    public int commonDepth;
+
+    private ConfigServerFixture fixture;
+    private EnvironmentRepository repository;
+    private String profiles;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = new ConfigServerFixture(backend, environmentCache, services, keysPerFile, commonDepth);
+        repository = fixture.getContext().getBean(EnvironmentRepository.class);
+        profiles = SyntheticConfigRepository.profiles(commonDepth);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Environment findOne(Cursor cursor) {
+        String application = SyntheticConfigRepository.serviceName(cursor.next++ % services);
+        return repository.findOne(application, profiles, SyntheticConfigRepository.LABEL);
+    }
+}
@@ -0,0 +1,122 @@
+package com.deepintent.di_config_server_demo.benchmarks;
+
+import com.deepintent.di_config_server_demo.common.config.ConfigServerLoggingFilter;
+import com.deepintent.di_config_server_demo.common.config.RequestLoggingConfig;
+import com.deepintent.di_config_server_demo.common.config.SensitiveValueMasker;
+import com.deepintent.di_config_server_demo.common.service.DecryptedValueCache;
+import com.deepintent.di_config_server_demo.common.service.RequestLogDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConfigServerLoggingFilter} around a handler that only writes a prepared body, so the score is
+ * the filter's own cost: buffering or summarizing, parsing, masking and logging.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoggingFilterBenchmark {
+
+    @Param({"VERBOSE", "SUMMARY", "OFF"})
+    public RequestLoggingConfig.Mode mode;
+
+    @Param({"json", "yaml"})
+    public String format;
+
+    @Param({"50", "500"})
+    public int keys;
+
+    private ConfigServerLoggingFilter filter;
+    private RequestLogDispatcher dispatcher;
+    private FilterChain chain;
+    private String path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        RequestLoggingConfig config = new RequestLoggingConfig();
+        ReflectionTestUtils.setField(config, "mode", mode);
+        ReflectionTestUtils.setField(config, "sampleRate", 1.0);
+        ReflectionTestUtils.setField(config, "queueCapacity", 4096);
+        ReflectionTestUtils.setField(config, "summaryKeys", Set.of("service-000.group-0.datasource-password-0"));
+
+        dispatcher = new RequestLogDispatcher(config);
+        dispatcher.start();
+        SensitiveValueMasker masker = new SensitiveValueMasker(
+                new StaticListableBeanFactory().getBeanProvider(DecryptedValueCache.class));
+        filter = new ConfigServerLoggingFilter(config, dispatcher, masker);
+
+        byte[] body = "json".equals(format) ? json() : yaml();
+        String contentType = "json".equals(format) ? "application/json" : "text/plain;charset=UTF-8";
+        path = "json".equals(format) ? "/service-000/layer1/master" : "/master/service-000-layer1.yml";
+        chain = (request, response) -> {
+            response.setContentType(contentType);
+            response.getOutputStream().write(body);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        dispatcher.stop();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private Map<String, Object> properties(String prefix, int count) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String key = i % 10 == 0 ? prefix + ".group-" + (i % 8) + ".datasource-password-" + i
+                    : prefix + ".group-" + (i % 8) + ".setting-" + i;
+            properties.put(key, prefix + "-value-" + i);
+        }
+        return properties;
+    }
+
+    private byte[] json() throws Exception {
+        Environment environment = new Environment("service-000", "layer1");
+        environment.setLabel(SyntheticConfigRepository.LABEL);
+        environment.setVersion("0123456789abcdef0123456789abcdef01234567");
+        environment.add(new PropertySource("services/service-000/service-000.yml", properties("service-000", keys / 2)));
+        environment.add(new PropertySource("common/application.yml", properties("common", keys / 2)));
+        return new ObjectMapper().writeValueAsBytes(environment);
+    }
+
+    private byte[] yaml() {
+        StringBuilder yaml = new StringBuilder();
+        properties("service-000", keys).forEach((key, value) -> yaml.append(key).append(": ").append(value).append('\n'));
+        return yaml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
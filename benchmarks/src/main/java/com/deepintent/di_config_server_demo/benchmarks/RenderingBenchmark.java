@@ -0,0 +1,72 @@
+package com.deepintent.di_config_server_demo.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The config server's JSON, YAML and properties renderings of one environment. The environment cache is
+ * on, so after the first call the score is rendering (plus the cache lookup), not git.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RenderingBenchmark {
+
+    @Param({"json", "yaml", "properties"})
+    public String format;
+
+    @Param({"50", "500"})
+    public int keysPerFile;
+
+    @Param({"3"})
+    public int commonDepth;
+
+    private ConfigServerFixture fixture;
+    private EnvironmentController controller;
+    private ObjectMapper objectMapper;
+    private String application;
+    private String profiles;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = new ConfigServerFixture(ConfigServerFixture.Backend.OBJECT, true, 1, keysPerFile, commonDepth);
+        controller = fixture.getContext().getBean(EnvironmentController.class);
+        objectMapper = fixture.getContext().getBean(ObjectMapper.class);
+        application = SyntheticConfigRepository.serviceName(0);
+        profiles = SyntheticConfigRepository.profiles(commonDepth);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Object render() throws Exception {
+        String label = SyntheticConfigRepository.LABEL;
+        return switch (format) {
+            case "json" -> objectMapper.writeValueAsBytes(controller.labelled(application, profiles, label));
+            case "yaml" -> controller.labelledYaml(application, profiles, label, false).getBody();
+            case "properties" -> controller.labelledProperties(application, profiles, label, false).getBody();
+            default -> throw new IllegalArgumentException(format);
+        };
+    }
+}
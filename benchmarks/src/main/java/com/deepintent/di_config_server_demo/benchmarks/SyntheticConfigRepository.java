@@ -0,0 +1,94 @@
+package com.deepintent.di_config_server_demo.benchmarks;
+
+import org.eclipse.jgit.api.Git;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.StringJoiner;
+
+/**
+ * Builds a local git repository laid out like the real config repository ({@code common/} plus
+ * {@code services/{application}/}), sized by the number of services, keys per file and the number of
+ * profile layers in {@code common/}. A fraction of the keys have names the request log masks.
+ */
+public final class SyntheticConfigRepository {
+
+    public static final String LABEL = "master";
+
+    private SyntheticConfigRepository() {
+    }
+
+    public static String serviceName(int index) {
+        return String.format("service-%03d", index);
+    }
+
+    /**
+     * @return the profiles that activate every common layer, e.g. {@code layer1,layer2}
+     */
+    public static String profiles(int commonDepth) {
+        if (commonDepth == 0) {
+            return "default";
+        }
+        StringJoiner profiles = new StringJoiner(",");
+        for (int layer = 1; layer <= commonDepth; layer++) {
+            profiles.add("layer" + layer);
+        }
+        return profiles.toString();
+    }
+
+    public static Path create(Path directory, int services, int keysPerFile, int commonDepth) throws Exception {
+        Files.createDirectories(directory);
+        try (Git git = Git.init().setDirectory(directory.toFile()).setInitialBranch(LABEL).call()) {
+            write(directory.resolve("common/application.yml"), yaml("common", keysPerFile));
+            for (int layer = 1; layer <= commonDepth; layer++) {
+                write(directory.resolve("common/application-layer" + layer + ".yml"), yaml("common", keysPerFile / 2));
+            }
+            for (int i = 0; i < services; i++) {
+                String service = serviceName(i);
+                write(directory.resolve("services/" + service + "/" + service + ".yml"), yaml(service, keysPerFile));
+                write(directory.resolve("services/" + service + "/" + service + "-layer1.yml"), yaml(service, keysPerFile / 4));
+                write(directory.resolve("services/" + service + "/" + service + ".properties"), properties(service, keysPerFile / 4));
+            }
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Synthetic config").setAuthor("bench", "bench@example.com")
+                    .setCommitter("bench", "bench@example.com").setSign(false).call();
+        }
+        return directory;
+    }
+
+    private static String yaml(String prefix, int keys) {
+        StringBuilder yaml = new StringBuilder(keys * 48);
+        for (int i = 0; i < keys; i++) {
+            yaml.append(key(prefix, i)).append(": ").append(value(prefix, i)).append('\n');
+        }
+        return yaml.toString();
+    }
+
+    private static String properties(String prefix, int keys) {
+        StringBuilder properties = new StringBuilder(keys * 48);
+        for (int i = 0; i < keys; i++) {
+            properties.append(key(prefix, i)).append("-props=").append(value(prefix, i)).append('\n');
+        }
+        return properties.toString();
+    }
+
+    private static String key(String prefix, int index) {
+        String group = prefix + ".group-" + (index % 8);
+        return switch (index % 10) {
+            case 0 -> group + ".datasource-password-" + index;
+            case 5 -> group + ".api-key-" + index;
+            default -> group + ".setting-" + index;
+        };
+    }
+
+    private static String value(String prefix, int index) {
+        return prefix + "-value-" + index + "-" + Integer.toHexString((prefix.hashCode() * 31) ^ index);
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+}
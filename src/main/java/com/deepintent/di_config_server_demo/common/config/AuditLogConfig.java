@@ -0,0 +1,28 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class AuditLogConfig {
+
+    @Value("${deepintent.config-server.audit-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${deepintent.config-server.audit-log.directory:${java.io.tmpdir}/di-config-server/audit}")
+    private String directory;
+
+    @Value("${deepintent.config-server.audit-log.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${deepintent.config-server.audit-log.max-segments:16}")
+    private int maxSegments;
+
+    @Value("${deepintent.config-server.audit-log.flush-interval:1s}")
+    private Duration flushInterval;
+}
@@ -0,0 +1,46 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.service.AuditLog;
+import com.deepintent.di_config_server_demo.common.service.AuditRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/auditlog?limit=&application=} returns the most recent audit records, newest first.
+ */
+@Component
+@Endpoint(id = "auditlog")
+@ConditionalOnProperty(
+    name = "deepintent.config-server.audit-log.enabled",
+    havingValue = "true",
+    matchIfMissing = true
+)
+@RequiredArgsConstructor
+public class AuditLogEndpoint {
+
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 10_000;
+
+    private final AuditLog auditLog;
+
+    @ReadOperation
+    public Map<String, Object> recent(@Nullable Integer limit, @Nullable String application) {
+        int effectiveLimit = limit != null ? Math.max(0, Math.min(limit, MAX_LIMIT)) : DEFAULT_LIMIT;
+        List<AuditRecord> records = auditLog.recent(effectiveLimit, application);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("directory", auditLog.getDirectory().toString());
+        result.put("segments", auditLog.getSegmentCount());
+        result.put("appended", auditLog.getAppendedCount());
+        result.put("dropped", auditLog.getDroppedCount());
+        result.put("records", records);
+        return result;
+    }
+}
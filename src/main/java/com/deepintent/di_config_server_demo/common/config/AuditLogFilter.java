@@ -0,0 +1,144 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.service.AuditLog;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Appends one {@link AuditLog} record per environment request. Outside every other filter, so requests they
+ * answer themselves (304s, rendered responses) are recorded with the status and bytes the client received.
+ * The commit is the one {@link ConditionalConfigRequestFilter} resolved the label to, if it did.
+ */
+@Component
+@Order(-2)
+@ConditionalOnProperty(
+    name = "deepintent.config-server.audit-log.enabled",
+    havingValue = "true",
+    matchIfMissing = true
+)
+@RequiredArgsConstructor
+public class AuditLogFilter extends OncePerRequestFilter {
+
+    private final AuditLog auditLog;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        ConfigRequest configRequest = ConfigRequest.parse(request);
+        if (configRequest == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long epochMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        CountingResponseWrapper counting = new CountingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, counting);
+        } finally {
+            auditLog.append(epochMillis, configRequest.application(), configRequest.profiles(), configRequest.label(),
+                    (String) request.getAttribute(ConfigRequest.VERSION_ATTRIBUTE), response.getStatus(),
+                    (System.nanoTime() - start) / 1_000, counting.getByteCount(), request.getRemoteAddr());
+        }
+    }
+
+    private static class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+        private CountingOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()), true);
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+
+        long getByteCount() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return outputStream != null ? outputStream.count : 0;
+        }
+    }
+
+    private static class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private long count;
+
+        CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(@NonNull byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class BatchConfig {
+
+    @Value("${deepintent.config-server.batch.max-entries:50}")
+    private int maxEntries;
+
+    @Value("${deepintent.config-server.batch.parallelism:8}")
+    private int parallelism;
+
+    @Value("${deepintent.config-server.batch.timeout:30s}")
+    private Duration timeout;
+}
@@ -0,0 +1,27 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class BulkheadConfig {
+
+    @Value("${deepintent.config-server.bulkheads.git.max-concurrent:64}")
+    private int gitMaxConcurrent;
+
+    @Value("${deepintent.config-server.bulkheads.git.max-wait:100ms}")
+    private Duration gitMaxWait;
+
+    @Value("${deepintent.config-server.bulkheads.vault.max-concurrent:32}")
+    private int vaultMaxConcurrent;
+
+    @Value("${deepintent.config-server.bulkheads.vault.max-wait:100ms}")
+    private Duration vaultMaxWait;
+
+    @Value("${deepintent.config-server.bulkheads.retry-after:1s}")
+    private Duration retryAfter;
+}
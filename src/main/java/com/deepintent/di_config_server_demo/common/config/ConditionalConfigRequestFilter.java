@@ -0,0 +1,155 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.repository.LabelVersionResolver;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Answers {@code If-None-Match} for environment requests from the label's current commit alone,
+ * before anything is resolved, rendered or buffered by {@link ConfigServerLoggingFilter}.
+ * Both the identity and the gzip validators issued by {@link RenderedResponseFilter} are accepted.
+ * Otherwise the validator is only sent with a successful response, once the chain has set its status,
+ * so that errors are never revalidated.
+ */
+@Slf4j
+@Component
+@Order(0)
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    name = "deepintent.config-server.conditional-requests.enabled",
+    havingValue = "true",
+    matchIfMissing = true
+)
+public class ConditionalConfigRequestFilter extends OncePerRequestFilter {
+
+    private final LabelVersionResolver versionResolver;
+    private final ConfigRequestTagger tagger;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        ConfigRequest configRequest = isReadRequest(request) ? ConfigRequest.parse(request) : null;
+        String version = configRequest != null ? versionResolver.resolve(configRequest.label()) : null;
+        if (version == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String etag = tagger.etag(configRequest, version, request);
+        request.setAttribute(ConfigRequest.VERSION_ATTRIBUTE, version);
+        request.setAttribute(ConfigRequest.ETAG_ATTRIBUTE, etag);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            log.debug("Not modified: {} at {}", request.getRequestURI(), version);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            return;
+        }
+
+        ValidatorResponseWrapper validated = new ValidatorResponseWrapper(response, request, version, etag);
+        filterChain.doFilter(request, validated);
+        validated.addValidator();
+    }
+
+    private boolean isReadRequest(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals(ConfigRequest.encodedEtag(etag, ConfigRequest.GZIP)) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the validator just before the response is committed, when its status is known, unless the
+     * repository served another commit than the one it was computed from. A validator set further down the
+     * chain, such as the gzip one, is left as it is.
+     */
+    private static class ValidatorResponseWrapper extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private final String version;
+        private final String etag;
+        private boolean done;
+
+        ValidatorResponseWrapper(HttpServletResponse response, HttpServletRequest request, String version, String etag) {
+            super(response);
+            this.request = request;
+            this.version = version;
+            this.etag = etag;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addValidator();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addValidator();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addValidator();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            done = true;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            done = true;
+            super.sendError(sc, msg);
+        }
+
+        void addValidator() {
+            if (done || isCommitted()) {
+                return;
+            }
+            done = true;
+            int status = getStatus();
+            if (status >= 200 && status < 300 && version.equals(request.getAttribute(ConfigRequest.VERSION_ATTRIBUTE))) {
+                if (!containsHeader(HttpHeaders.ETAG)) {
+                    setHeader(HttpHeaders.ETAG, etag);
+                }
+                setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Coordinates of an environment request as mapped by the config server's {@code EnvironmentController}:
+ * {@code /{application}/{profiles}[/{label}]} and {@code [/{label}]/{application}-{profiles}.(yml|yaml|properties|json)}.
+ */
+public record ConfigRequest(String application, String profiles, String label, Format format) {
+
+    /**
+     * The commit of the request's label: set before the request is handled, then replaced by the commit the
+     * environment repository actually served, which can differ if the label moved in between.
+     */
+    public static final String VERSION_ATTRIBUTE = ConfigRequest.class.getName() + ".version";
+
+    public static final String ETAG_ATTRIBUTE = ConfigRequest.class.getName() + ".etag";
+
+    public static final String GZIP = "gzip";
+
+    private static final Set<String> RESERVED_PREFIXES = Set.of("actuator", "error", "encrypt", "decrypt", "key", "delta", "subscribe", "batch");
+
+    public enum Format {
+        JSON(null),
+        YAML(".yml"),
+        YAML_LONG(".yaml"),
+        PROPERTIES(".properties"),
+        FLAT_JSON(".json");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        static Format fromFileName(String fileName) {
+            for (Format format : values()) {
+                if (format.extension != null && fileName.endsWith(format.extension)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @return the parsed request, or {@code null} if the path is not an environment request
+     */
+    public static ConfigRequest parse(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.length() <= 1) {
+            return null;
+        }
+
+        String[] parts = path.substring(1).split("/");
+        if (parts.length > 3 || RESERVED_PREFIXES.contains(parts[0])) {
+            return null;
+        }
+
+        Format format = Format.fromFileName(parts[parts.length - 1]);
+        if (format != null) {
+            if (parts.length > 2) {
+                return null;
+            }
+            String fileName = parts[parts.length - 1];
+            String baseName = fileName.substring(0, fileName.length() - format.extension.length());
+            int dashIndex = baseName.lastIndexOf('-');
+            if (dashIndex <= 0 || dashIndex == baseName.length() - 1) {
+                return null;
+            }
+            String label = parts.length == 2 ? decodeLabel(parts[0]) : request.getParameter("label");
+            return new ConfigRequest(baseName.substring(0, dashIndex), baseName.substring(dashIndex + 1), label, format);
+        }
+
+        if (parts.length < 2 || parts[0].isEmpty() || parts[1].isEmpty()) {
+            return null;
+        }
+        String label = parts.length == 3 ? decodeLabel(parts[2]) : null;
+        return new ConfigRequest(parts[0], parts[1], label, Format.JSON);
+    }
+
+    /**
+     * A strong validator for the response to this request when {@link #label()} resolves to {@code version}.
+     * JSON responses are negotiated (v1 or v2 environment media type), so the {@code Accept} header is part of it.
+     */
+    public String etag(String version, HttpServletRequest request) {
+        String queryString = request.getQueryString();
+        String accept = format == Format.JSON ? request.getHeader(HttpHeaders.ACCEPT) : null;
+        String coordinates = version + '|' + application + '|' + profiles + '|' + (label != null ? label : "")
+                + '|' + format + '|' + (queryString != null ? queryString : "") + '|' + (accept != null ? accept : "");
+        return "\"" + DigestUtils.md5DigestAsHex(coordinates.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * The validator of the {@code encoding}-encoded representation of the response tagged {@code etag}.
+     */
+    public static String encodedEtag(String etag, String encoding) {
+        return etag.substring(0, etag.length() - 1) + '-' + encoding + '"';
+    }
+
+    private static String decodeLabel(String label) {
+        return label.replace("(_)", "/");
+    }
+}
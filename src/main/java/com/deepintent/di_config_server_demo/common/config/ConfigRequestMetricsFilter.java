@@ -0,0 +1,49 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.service.ConfigServerMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Outermost timer of environment requests, so {@code config.request} includes everything the other
+ * filters do, including requests they answer themselves (304s, rendered responses).
+ */
+@Component
+@Order(-1)
+@RequiredArgsConstructor
+public class ConfigRequestMetricsFilter extends OncePerRequestFilter {
+
+    private final ConfigServerMetrics metrics;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        ConfigRequest configRequest = ConfigRequest.parse(request);
+        if (configRequest == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ConfigRequestTimings timings = new ConfigRequestTimings();
+        request.setAttribute(ConfigRequestTimings.ATTRIBUTE, timings);
+        metrics.requestStarted();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            metrics.requestFinished(configRequest.application(), response.getStatus(), System.nanoTime() - start,
+                    timings.getHandlerNanos(), timings.getRepositoryNanos());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.repository.VaultSecretCache;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Computes the ETag of an environment response. Besides the commit, it covers the generation of the
+ * Vault secrets overlaid on it, so that a changed secret is never answered with {@code 304} or served
+ * from a rendered response.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConfigRequestTagger {
+
+    private final ObjectProvider<VaultSecretCache> vaultSecrets;
+
+    public String etag(ConfigRequest configRequest, String version, HttpServletRequest request) {
+        VaultSecretCache secrets = vaultSecrets.getIfAvailable();
+        return configRequest.etag(secrets != null ? version + "+vault" + secrets.getGeneration() : version, request);
+    }
+}
@@ -0,0 +1,42 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Time an environment request spent in its handler and, within that, in the environment repository.
+ * Collected by {@link ConfigRequestMetricsFilter} to split request latency into phases.
+ */
+public class ConfigRequestTimings {
+
+    public static final String ATTRIBUTE = ConfigRequestTimings.class.getName();
+
+    private long handlerNanos;
+    private long repositoryNanos;
+
+    /**
+     * @return the timings of the request bound to the current thread, if it is being measured
+     */
+    public static ConfigRequestTimings current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                ? (ConfigRequestTimings) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+    }
+
+    public long getHandlerNanos() {
+        return handlerNanos;
+    }
+
+    public long getRepositoryNanos() {
+        return repositoryNanos;
+    }
+
+    public void addHandlerNanos(long nanos) {
+        handlerNanos += nanos;
+    }
+
+    public void addRepositoryNanos(long nanos) {
+        repositoryNanos += nanos;
+    }
+}
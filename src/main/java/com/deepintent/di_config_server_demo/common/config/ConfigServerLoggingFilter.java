@@ -1,10 +1,13 @@
 package com.deepintent.di_config_server_demo.common.config;
 
+import com.deepintent.di_config_server_demo.common.service.RequestLogDispatcher;
+import com.deepintent.di_config_server_demo.common.service.RequestLogEntry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.lang.NonNull;
@@ -15,13 +18,18 @@ import org.springframework.web.util.ContentCachingResponseWrapper;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Component
 @Order(1)
+@RequiredArgsConstructor
 public class ConfigServerLoggingFilter extends OncePerRequestFilter {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RequestLoggingConfig loggingConfig;
+    private final RequestLogDispatcher logDispatcher;
+    private final SensitiveValueMasker masker;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, 
@@ -29,8 +37,11 @@ public class ConfigServerLoggingFilter extends OncePerRequestFilter {
                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
         
         String path = request.getRequestURI();
+        RequestLoggingConfig.Mode mode = loggingConfig.getMode();
         
-        if (isConfigServerEndpoint(path)) {
+        if (mode == RequestLoggingConfig.Mode.SUMMARY && isConfigServerEndpoint(path) && isSampled()) {
+            summarizeRequest(request, response, filterChain);
+        } else if (mode == RequestLoggingConfig.Mode.VERBOSE && isConfigServerEndpoint(path)) {
             ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
             
             try {
@@ -45,9 +56,38 @@ public class ConfigServerLoggingFilter extends OncePerRequestFilter {
         }
     }
 
+    private void summarizeRequest(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        SummarizingResponseWrapper responseWrapper = new SummarizingResponseWrapper(response,
+                new ResponseSummarizer(loggingConfig.getSummaryKeys(), masker));
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            String path = request.getRequestURI();
+            logDispatcher.submit(new RequestLogEntry(
+                    request.getMethod(),
+                    path,
+                    extractApplication(path),
+                    extractProfile(path),
+                    extractLabel(path, request),
+                    responseWrapper.getStatus(),
+                    (System.nanoTime() - start) / 1_000_000,
+                    responseWrapper.finish()));
+        }
+    }
+
+    private boolean isSampled() {
+        double sampleRate = loggingConfig.getSampleRate();
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
     private boolean isConfigServerEndpoint(String path) {
         if (path == null || path.equals("/") || 
             path.startsWith("/actuator/") || 
+            path.startsWith("/subscribe/") ||
+            path.equals("/batch") ||
             path.startsWith("/error")) {
             return false;
         }
@@ -173,29 +213,18 @@ public class ConfigServerLoggingFilter extends OncePerRequestFilter {
             }
         } catch (Exception e) {
             log.debug("Could not parse response as JSON/YAML: {}", e.getMessage());
-            log.info("--- Raw Response (first 500 chars) ---");
             String preview = responseBody.length() > 500 ? responseBody.substring(0, 500) + "..." : responseBody;
-            log.info(preview);
+            if (masker.isSafeToLog(preview)) {
+                log.info("--- Raw Response (first 500 chars) ---");
+                log.info(preview);
+            } else {
+                log.info("--- Raw Response withheld: contains decrypted values ---");
+            }
         }
     }
 
     private String maskSensitive(String key, String value) {
-        if (value == null || value.isEmpty()) {
-            return value;
-        }
-        
-        String lowerKey = key.toLowerCase();
-        if (lowerKey.contains("password") || 
-            lowerKey.contains("token") || 
-            lowerKey.contains("secret") ||
-            (lowerKey.contains("key") && (lowerKey.contains("api") || lowerKey.contains("auth")))) {
-            if (value.length() > 8) {
-                return value.substring(0, 4) + "***" + value.substring(value.length() - 4);
-            }
-            return "***";
-        }
-        
-        return value;
+        return masker.mask(key, value);
     }
 
     private String extractApplication(String path) {
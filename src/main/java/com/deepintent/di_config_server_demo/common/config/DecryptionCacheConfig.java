@@ -0,0 +1,21 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class DecryptionCacheConfig {
+
+    @Value("${deepintent.config-server.decryption-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${deepintent.config-server.decryption-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${deepintent.config-server.decryption-cache.expire-after-access:1h}")
+    private Duration expireAfterAccess;
+}
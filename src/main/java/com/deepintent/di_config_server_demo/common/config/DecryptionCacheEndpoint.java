@@ -0,0 +1,41 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.service.DecryptedValueCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/decryptioncache} reports how many values are cached (never the values themselves),
+ * {@code DELETE} discards them.
+ */
+@Component
+@Endpoint(id = "decryptioncache")
+@ConditionalOnProperty(
+    name = "deepintent.config-server.decryption-cache.enabled",
+    havingValue = "true",
+    matchIfMissing = true
+)
+@RequiredArgsConstructor
+public class DecryptionCacheEndpoint {
+
+    private final DecryptedValueCache cache;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of(
+                "size", cache.size(),
+                "hitRate", cache.getCache().stats().hitRate());
+    }
+
+    @DeleteOperation
+    public Map<String, Object> clear() {
+        cache.invalidateAll();
+        return status();
+    }
+}
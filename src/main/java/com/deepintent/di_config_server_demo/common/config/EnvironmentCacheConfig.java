@@ -0,0 +1,21 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class EnvironmentCacheConfig {
+
+    @Value("${deepintent.config-server.environment-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${deepintent.config-server.environment-cache.maximum-weight:500000}")
+    private long maximumWeight;
+
+    @Value("${deepintent.config-server.environment-cache.expire-after-access:30m}")
+    private Duration expireAfterAccess;
+}
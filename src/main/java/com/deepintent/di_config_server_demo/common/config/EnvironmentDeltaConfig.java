@@ -0,0 +1,18 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class EnvironmentDeltaConfig {
+
+    @Value("${deepintent.config-server.delta.snapshot-cache.maximum-weight:1000000}")
+    private long maximumWeight;
+
+    @Value("${deepintent.config-server.delta.snapshot-cache.expire-after-access:1h}")
+    private Duration expireAfterAccess;
+}
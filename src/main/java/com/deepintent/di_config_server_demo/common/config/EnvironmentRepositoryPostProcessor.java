@@ -0,0 +1,90 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.repository.BulkheadEnvironmentRepository;
+import com.deepintent.di_config_server_demo.common.repository.CachingEnvironmentRepository;
+import com.deepintent.di_config_server_demo.common.repository.CommitWorktrees;
+import com.deepintent.di_config_server_demo.common.repository.ConfigTreeSnapshots;
+import com.deepintent.di_config_server_demo.common.repository.GitRefreshScheduler;
+import com.deepintent.di_config_server_demo.common.repository.LabelVersionResolver;
+import com.deepintent.di_config_server_demo.common.repository.MeteredEnvironmentRepository;
+import com.deepintent.di_config_server_demo.common.repository.ObjectEnvironmentRepository;
+import com.deepintent.di_config_server_demo.common.repository.VaultOverlayEnvironmentRepository;
+import com.deepintent.di_config_server_demo.common.repository.VaultSecretCache;
+import com.deepintent.di_config_server_demo.common.repository.WorktreeEnvironmentRepository;
+import com.deepintent.di_config_server_demo.common.service.Bulkheads;
+import com.deepintent.di_config_server_demo.common.service.ConfigServerMetrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathCompositeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decorates the composite {@code EnvironmentRepository} that the config server controllers use.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EnvironmentRepositoryPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<EnvironmentCacheConfig> cacheConfig;
+    private final ObjectProvider<LabelVersionResolver> versionResolver;
+    private final ObjectProvider<GitRefreshScheduler> refreshScheduler;
+    private final ObjectProvider<CommitWorktrees> worktrees;
+    private final ObjectProvider<ConfigTreeSnapshots> snapshots;
+    private final ObjectProvider<GitRefreshConfig> refreshConfig;
+    private final ObjectProvider<GitConfig> gitConfig;
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+    private final ObjectProvider<VaultSecretCache> vaultSecrets;
+    private final ObjectProvider<VaultConfig> vaultConfig;
+    private final ObjectProvider<ConfigServerMetrics> metrics;
+    private final ObjectProvider<Bulkheads> bulkheads;
+    private final ConfigurableEnvironment environment;
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (!(bean instanceof SearchPathCompositeEnvironmentRepository repository)) {
+            return bean;
+        }
+
+        EnvironmentRepository base = repository;
+        GitRefreshScheduler scheduler = refreshScheduler.getIfAvailable();
+        if (scheduler != null && refreshConfig.getObject().getSnapshotMode() == GitRefreshConfig.SnapshotMode.OBJECT) {
+            log.info("Serving '{}' from in-memory commit snapshots of the background-refreshed git mirror", beanName);
+            base = new ObjectEnvironmentRepository(scheduler, snapshots.getObject(), gitConfig.getObject(), repository);
+        } else if (scheduler != null) {
+            log.info("Serving '{}' from per-commit worktrees of the background-refreshed git mirror", beanName);
+            base = new WorktreeEnvironmentRepository(scheduler, worktrees.getObject(), gitConfig.getObject(),
+                    refreshConfig.getObject(), environment, observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP), repository);
+        }
+
+        base = new BulkheadEnvironmentRepository(base, repository, bulkheads.getObject().git());
+
+        EnvironmentRepository decorated = base;
+        EnvironmentCacheConfig config = cacheConfig.getObject();
+        if (config.isEnabled()) {
+            log.info("Caching environments of '{}' (maximum weight {}, expire after access {})",
+                    beanName, config.getMaximumWeight(), config.getExpireAfterAccess());
+            CachingEnvironmentRepository caching = new CachingEnvironmentRepository(base, repository,
+                    versionResolver.getObject(), config.getMaximumWeight(), config.getExpireAfterAccess());
+            CaffeineCacheMetrics.monitor(metrics.getObject().getRegistry(), caching.getCache(), "environments");
+            decorated = caching;
+        }
+
+        VaultSecretCache secrets = vaultSecrets.getIfAvailable();
+        if (secrets != null) {
+            // Outside the environment cache: secrets follow their lease, not the git commit
+            log.info("Overlaying Vault secrets from {} on '{}'", vaultConfig.getObject().getUri(), beanName);
+            decorated = new VaultOverlayEnvironmentRepository(decorated, repository, secrets,
+                    vaultConfig.getObject().getDefaultKey(), vaultConfig.getObject().getProfileSeparator());
+        }
+        return new MeteredEnvironmentRepository(decorated, repository);
+    }
+}
@@ -0,0 +1,133 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.repository.GitRefreshScheduler;
+import com.deepintent.di_config_server_demo.common.repository.LabelVersionResolver;
+import com.deepintent.di_config_server_demo.common.repository.RemoteLabelVersionResolver;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Configuration
+@RequiredArgsConstructor
+public class GitConfig {
+
+    @Getter(AccessLevel.NONE)
+    private final Environment environment;
+
+    @Value("${spring.cloud.config.server.composite[0].uri:}")
+    private String uri;
+
+    @Value("${spring.cloud.config.server.composite[0].username:}")
+    private String username;
+
+    @Value("${spring.cloud.config.server.composite[0].password:}")
+    private String password;
+
+    @Value("${spring.cloud.config.server.composite[0].default-label:${spring.cloud.config.server.default-label:master}}")
+    private String defaultLabel;
+
+    @Value("${deepintent.config-server.git.ref-ttl:5s}")
+    private Duration refTtl;
+
+    public List<String> getSearchPaths() {
+        return Binder.get(environment)
+                .bind("spring.cloud.config.server.composite[0].search-paths", Bindable.listOf(String.class))
+                .orElse(List.of());
+    }
+
+    /**
+     * Repository path prefixes (with a trailing slash) that the search paths expand to for an application.
+     * An empty prefix means the whole repository is searched.
+     */
+    public List<String> searchPrefixes(String application) {
+        List<String> searchPaths = getSearchPaths();
+        if (searchPaths.isEmpty()) {
+            return List.of("");
+        }
+        List<String> prefixes = new ArrayList<>(searchPaths.size());
+        for (String searchPath : searchPaths) {
+            prefixes.add(toPrefix(application != null ? searchPath.replace("{application}", application) : searchPath));
+        }
+        return prefixes;
+    }
+
+    /**
+     * Repository path prefixes that contain every file any application can be served from.
+     */
+    public List<String> searchRoots() {
+        return searchPrefixes(null);
+    }
+
+    /**
+     * Prefixes of search paths without placeholders, i.e. the layers every application shares (such as {@code common/}).
+     */
+    public List<String> sharedSearchPrefixes() {
+        List<String> prefixes = new ArrayList<>();
+        for (String searchPath : getSearchPaths()) {
+            if (searchPath.indexOf('{') < 0) {
+                prefixes.add(toPrefix(searchPath));
+            }
+        }
+        return prefixes;
+    }
+
+    /**
+     * {@link #searchRoots()} as directory paths for a JGit path filter; empty when the whole repository is searched.
+     */
+    public List<String> searchRootDirectories() {
+        List<String> directories = new ArrayList<>();
+        for (String prefix : searchRoots()) {
+            if (prefix.isEmpty()) {
+                return List.of();
+            }
+            directories.add(prefix.substring(0, prefix.length() - 1));
+        }
+        return directories;
+    }
+
+    private static String toPrefix(String searchPath) {
+        String prefix = searchPath;
+        int placeholder = prefix.indexOf('{');
+        if (placeholder >= 0) {
+            prefix = prefix.substring(0, prefix.lastIndexOf('/', placeholder) + 1);
+        }
+        while (prefix.startsWith("/")) {
+            prefix = prefix.substring(1);
+        }
+        if (!prefix.isEmpty() && !prefix.endsWith("/")) {
+            prefix = prefix + "/";
+        }
+        return prefix;
+    }
+
+    public CredentialsProvider credentialsProvider() {
+        if (!StringUtils.hasText(username)) {
+            return null;
+        }
+        return new UsernamePasswordCredentialsProvider(username, password != null ? password : "");
+    }
+
+    @Bean
+    public LabelVersionResolver labelVersionResolver(ObjectProvider<GitRefreshScheduler> refreshScheduler) {
+        GitRefreshScheduler scheduler = refreshScheduler.getIfAvailable();
+        if (scheduler != null) {
+            return scheduler::resolve;
+        }
+        return new RemoteLabelVersionResolver(this);
+    }
+}
@@ -0,0 +1,46 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class GitRefreshConfig {
+
+    public enum SnapshotMode {
+        /** Each commit is written to its own directory and read through the native repository. */
+        WORKTREE,
+        /** Commits are read straight from the git object database into memory. */
+        OBJECT
+    }
+
+    @Value("${deepintent.config-server.git-refresh.enabled:false}")
+    private boolean enabled;
+
+    @Value("${deepintent.config-server.git-refresh.basedir:${java.io.tmpdir}/di-config-server}")
+    private String basedir;
+
+    @Value("${deepintent.config-server.git-refresh.interval:30s}")
+    private Duration interval;
+
+    @Value("${deepintent.config-server.git-refresh.min-on-demand-interval:5s}")
+    private Duration minOnDemandInterval;
+
+    @Value("${deepintent.config-server.git-refresh.snapshot-mode:worktree}")
+    private SnapshotMode snapshotMode;
+
+    @Value("${deepintent.config-server.git-refresh.max-snapshots:64}")
+    private int maxSnapshots;
+
+    @Value("${deepintent.config-server.git-refresh.parsed-blob-cache.maximum-weight:2000000}")
+    private long parsedBlobMaximumWeight;
+
+    @Value("${deepintent.config-server.git-refresh.max-worktrees:32}")
+    private int maxWorktrees;
+
+    @Value("${deepintent.config-server.git-refresh.worktree-removal-delay:1m}")
+    private Duration worktreeRemovalDelay;
+}
@@ -0,0 +1,43 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.repository.GitRefreshScheduler;
+import com.deepintent.di_config_server_demo.common.repository.GitRefreshStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@code GET /actuator/gitrefresh} reports the last background fetch, {@code POST} requests one now.
+ */
+@Component
+@Endpoint(id = "gitrefresh")
+@ConditionalOnProperty(
+    name = "deepintent.config-server.git-refresh.enabled",
+    havingValue = "true"
+)
+@RequiredArgsConstructor
+public class GitRefreshEndpoint {
+
+    private final GitRefreshScheduler scheduler;
+
+    @ReadOperation
+    public GitRefreshStatus status() {
+        return scheduler.getStatus();
+    }
+
+    @WriteOperation
+    public GitRefreshStatus refresh() throws InterruptedException, ExecutionException {
+        try {
+            return scheduler.refresh().get(30, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            return scheduler.getStatus();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Configuration
+public class MetricsConfig {
+
+    @Value("${deepintent.config-server.metrics.max-applications:200}")
+    private int maxApplications;
+}
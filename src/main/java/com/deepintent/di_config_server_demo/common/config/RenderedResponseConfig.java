@@ -0,0 +1,25 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class RenderedResponseConfig {
+
+    @Value("${deepintent.config-server.rendered-responses.enabled:true}")
+    private boolean enabled;
+
+    @Value("${deepintent.config-server.rendered-responses.maximum-size:64MB}")
+    private DataSize maximumSize;
+
+    @Value("${deepintent.config-server.rendered-responses.expire-after-access:30m}")
+    private Duration expireAfterAccess;
+
+    @Value("${deepintent.config-server.rendered-responses.min-compress-size:1KB}")
+    private DataSize minCompressSize;
+}
@@ -0,0 +1,175 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.repository.LabelVersionResolver;
+import com.deepintent.di_config_server_demo.common.service.RenderedResponse;
+import com.deepintent.di_config_server_demo.common.service.RenderedResponseCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+/**
+ * Serves environment requests from bytes rendered once per (commit, request coordinates, format), with a
+ * gzip variant chosen by {@code Accept-Encoding}. On a miss the response is rendered by the config server as
+ * usual and captured on its way out. Runs inside {@link ConfigServerLoggingFilter} and hands it the summary
+ * computed at render time, so a cached response is neither re-serialized nor re-parsed for logging.
+ */
+@Slf4j
+@Component
+@Order(2)
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    name = "deepintent.config-server.rendered-responses.enabled",
+    havingValue = "true",
+    matchIfMissing = true
+)
+public class RenderedResponseFilter extends OncePerRequestFilter {
+
+    private final RenderedResponseCache cache;
+    private final RenderedResponseConfig config;
+    private final RequestLoggingConfig loggingConfig;
+    private final SensitiveValueMasker masker;
+    private final LabelVersionResolver versionResolver;
+    private final ConfigRequestTagger tagger;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        boolean head = "HEAD".equals(request.getMethod());
+        ConfigRequest configRequest = head || "GET".equals(request.getMethod()) ? ConfigRequest.parse(request) : null;
+        String version = configRequest != null ? version(request, configRequest) : null;
+        if (version == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String etag = etag(request, configRequest, version);
+        RenderedResponse rendered = cache.get(etag);
+        if (rendered != null) {
+            log.debug("Serving {} from rendered response {}", request.getRequestURI(), etag);
+            write(request, response, etag, rendered, head);
+            return;
+        }
+        if (head) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper buffer = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, buffer);
+        if (!isCacheable(buffer)) {
+            buffer.copyBodyToResponse();
+            return;
+        }
+
+        rendered = render(buffer.getContentType(), buffer.getContentAsByteArray());
+        // The label may have moved since the key was computed, the repository records what it served
+        Object served = request.getAttribute(ConfigRequest.VERSION_ATTRIBUTE);
+        boolean current = version.equals(served);
+        if (current) {
+            cache.put(etag, rendered);
+        } else {
+            log.debug("Not caching {}: rendered at {}, expected {}", request.getRequestURI(), served, version);
+        }
+        write(request, response, current ? etag : null, rendered, false);
+    }
+
+    private String version(HttpServletRequest request, ConfigRequest configRequest) {
+        Object version = request.getAttribute(ConfigRequest.VERSION_ATTRIBUTE);
+        return version != null ? (String) version : versionResolver.resolve(configRequest.label());
+    }
+
+    private String etag(HttpServletRequest request, ConfigRequest configRequest, String version) {
+        Object etag = request.getAttribute(ConfigRequest.ETAG_ATTRIBUTE);
+        return etag != null ? (String) etag : tagger.etag(configRequest, version, request);
+    }
+
+    private boolean isCacheable(ContentCachingResponseWrapper response) {
+        return response.getStatus() == HttpServletResponse.SC_OK
+                && response.getContentType() != null
+                && !response.containsHeader(HttpHeaders.CONTENT_ENCODING);
+    }
+
+    private RenderedResponse render(String contentType, byte[] body) {
+        ResponseSummary summary = null;
+        if (loggingConfig.getMode() == RequestLoggingConfig.Mode.SUMMARY) {
+            ResponseSummarizer summarizer = new ResponseSummarizer(loggingConfig.getSummaryKeys(), masker);
+            summarizer.accept(contentType, body, 0, body.length);
+            summary = summarizer.summarize();
+        }
+        return RenderedResponse.of(contentType, body, config.getMinCompressSize().toBytes(), summary);
+    }
+
+    /**
+     * @param etag the validator of {@code rendered}, or {@code null} if it was rendered at another commit
+     */
+    private void write(HttpServletRequest request, HttpServletResponse response, String etag,
+                       RenderedResponse rendered, boolean head) throws IOException {
+        // A verbose request log buffers and decodes the body itself, so it always gets the identity bytes
+        boolean gzip = rendered.gzip() != null && acceptsGzip(request)
+                && WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null;
+        byte[] body = gzip ? rendered.gzip() : rendered.identity();
+
+        SummarizingResponseWrapper summarizing = WebUtils.getNativeResponse(response, SummarizingResponseWrapper.class);
+        if (summarizing != null && rendered.summary() != null) {
+            summarizing.useSummary(rendered.summary());
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(rendered.contentType());
+        // The rendered variant and its ETag depend on the negotiated media type as well as the encoding
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, ConfigRequest.GZIP);
+            // Only when ConditionalConfigRequestFilter issues validators, which then keeps this one
+            if (etag != null && request.getAttribute(ConfigRequest.ETAG_ATTRIBUTE) != null) {
+                response.setHeader(HttpHeaders.ETAG, ConfigRequest.encodedEtag(etag, ConfigRequest.GZIP));
+            }
+        }
+        response.setContentLength(body.length);
+        if (!head) {
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.split(";");
+            String coding = parts[0].trim();
+            if (coding.equalsIgnoreCase(ConfigRequest.GZIP) || coding.equals("*")) {
+                return parts.length < 2 || !isZeroQuality(parts[1]);
+            }
+        }
+        return false;
+    }
+
+    private boolean isZeroQuality(String parameter) {
+        String value = parameter.trim();
+        if (!value.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(value.substring(2)) == 0.0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+@Getter
+@Configuration
+public class RequestLoggingConfig {
+
+    public enum Mode {
+        /** Every request and every property is logged synchronously on the request thread. */
+        VERBOSE,
+        /** A sampled one-line summary per request is handed to a background logger. */
+        SUMMARY,
+        OFF
+    }
+
+    @Value("${deepintent.config-server.request-logging.mode:verbose}")
+    private Mode mode;
+
+    @Value("${deepintent.config-server.request-logging.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Value("${deepintent.config-server.request-logging.queue-capacity:4096}")
+    private int queueCapacity;
+
+    @Value("${deepintent.config-server.request-logging.summary-keys:}")
+    private Set<String> summaryKeys;
+}
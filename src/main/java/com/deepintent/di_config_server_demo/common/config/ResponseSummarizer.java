@@ -0,0 +1,268 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a {@link ResponseSummary} from response bytes as they are written, without buffering the body.
+ * JSON environments are walked with Jackson's non-blocking parser; YAML and properties bodies are scanned
+ * line by line as UTF-8. YAML keys are rebuilt into dotted keys from the indentation of their parents, so
+ * {@code summary-keys} match the same way in every format. Any parse problem only degrades the summary,
+ * never the response.
+ */
+@Slf4j
+public class ResponseSummarizer {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int MAX_LINE_LENGTH = 512;
+
+    private final Set<String> summaryKeys;
+    private final SensitiveValueMasker masker;
+    private final List<ResponseSummary.Source> sources = new ArrayList<>();
+    private final Map<String, String> selectedValues = new LinkedHashMap<>();
+
+    private String format;
+    private long bytes;
+    private boolean failed;
+
+    private JsonParser parser;
+    private ByteArrayFeeder feeder;
+    private int depth;
+    private String topField;
+    private String sourceField;
+    private String sourceName;
+    private int sourceKeys;
+    private String pendingKey;
+    private boolean inSources;
+    private boolean inProperties;
+    private String application;
+    private String version;
+
+    private byte[] line;
+    private int lineLength;
+    private boolean yaml;
+    private final Deque<YamlParent> yamlParents = new ArrayDeque<>();
+    private int textKeys;
+
+    public ResponseSummarizer(Set<String> summaryKeys, SensitiveValueMasker masker) {
+        this.summaryKeys = summaryKeys;
+        this.masker = masker;
+    }
+
+    public void accept(String contentType, byte[] buffer, int offset, int length) {
+        bytes += length;
+        if (failed || length == 0) {
+            return;
+        }
+        try {
+            if (format == null) {
+                start(contentType);
+            }
+            if (parser != null) {
+                feeder.feedInput(buffer, offset, offset + length);
+                drainTokens();
+            } else {
+                scanLines(buffer, offset, length);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not summarize response: {}", e.getMessage());
+            failed = true;
+        }
+    }
+
+    public ResponseSummary summarize() {
+        if (parser == null && line != null && lineLength > 0) {
+            onLine();
+            lineLength = 0;
+        }
+        List<ResponseSummary.Source> result = new ArrayList<>(sources);
+        if (format != null && parser == null) {
+            result.add(new ResponseSummary.Source(format, textKeys));
+        }
+        return new ResponseSummary(format != null ? format : "empty", bytes, application, version,
+                result, selectedValues);
+    }
+
+    private void start(String contentType) throws IOException {
+        if (contentType != null && contentType.contains("json")) {
+            format = "json";
+            parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+            feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        } else {
+            yaml = contentType != null && contentType.contains("yaml");
+            format = yaml ? "yaml" : "text";
+            line = new byte[MAX_LINE_LENGTH];
+        }
+    }
+
+    private void drainTokens() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> {
+                    onStart(token);
+                    depth++;
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    depth--;
+                    onEnd();
+                }
+                case FIELD_NAME -> onField(parser.currentName());
+                default -> onScalar(token);
+            }
+        }
+    }
+
+    private void onStart(JsonToken token) {
+        if (depth == 1 && token == JsonToken.START_ARRAY && "propertySources".equals(topField)) {
+            inSources = true;
+        } else if (depth == 2 && inSources && token == JsonToken.START_OBJECT) {
+            sourceName = null;
+            sourceKeys = 0;
+        } else if (depth == 3 && inSources && token == JsonToken.START_OBJECT && "source".equals(sourceField)) {
+            inProperties = true;
+        }
+        pendingKey = null;
+    }
+
+    private void onEnd() {
+        if (depth == 3 && inProperties) {
+            inProperties = false;
+        } else if (depth == 2 && inSources) {
+            sources.add(new ResponseSummary.Source(sourceName, sourceKeys));
+        } else if (depth == 1 && inSources) {
+            inSources = false;
+        }
+    }
+
+    private void onField(String name) {
+        if (depth == 1) {
+            topField = name;
+        } else if (depth == 3 && inSources) {
+            sourceField = name;
+        } else if (depth == 4 && inProperties) {
+            sourceKeys++;
+            pendingKey = summaryKeys.contains(name) ? name : null;
+        }
+    }
+
+    private void onScalar(JsonToken token) throws IOException {
+        if (depth == 1 && token == JsonToken.VALUE_STRING) {
+            if ("name".equals(topField)) {
+                application = parser.getText();
+            } else if ("version".equals(topField)) {
+                version = parser.getText();
+            }
+        } else if (depth == 3 && inSources && "name".equals(sourceField) && token == JsonToken.VALUE_STRING) {
+            sourceName = parser.getText();
+        } else if (depth == 4 && pendingKey != null) {
+            selectedValues.putIfAbsent(pendingKey, masker.mask(pendingKey, parser.getText()));
+            pendingKey = null;
+        }
+    }
+
+    private void scanLines(byte[] buffer, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            byte b = buffer[i];
+            if (b == '\n') {
+                onLine();
+                lineLength = 0;
+            } else if (lineLength < MAX_LINE_LENGTH) {
+                line[lineLength++] = b;
+            }
+        }
+    }
+
+    private void onLine() {
+        String raw = new String(line, 0, lineLength, StandardCharsets.UTF_8);
+        String text = raw.trim();
+        if (text.isEmpty() || text.startsWith("#") || text.equals("---")) {
+            return;
+        }
+        if (yaml) {
+            onYamlLine(raw.length() - raw.stripLeading().length(), text);
+            return;
+        }
+        int separator = indexOfSeparator(text);
+        if (separator <= 0) {
+            return;
+        }
+        onKey(text.substring(0, separator).trim(), text.substring(separator + 1).trim());
+    }
+
+    /**
+     * A {@code key:} line without a value opens a parent for the more deeply indented lines that follow;
+     * a parent holding a list counts as one key.
+     */
+    private void onYamlLine(int indent, String text) {
+        boolean listItem = text.startsWith("- ") || text.equals("-");
+        // List items may sit at the same indentation as the key that holds them
+        while (!yamlParents.isEmpty() && (yamlParents.peek().indent() > indent
+                || yamlParents.peek().indent() == indent && !listItem)) {
+            yamlParents.pop();
+        }
+        if (listItem) {
+            YamlParent parent = yamlParents.peek();
+            if (parent != null && !parent.counted()) {
+                yamlParents.pop();
+                yamlParents.push(new YamlParent(parent.indent(), parent.key(), true));
+                textKeys++;
+            }
+            return;
+        }
+        int separator = text.indexOf(": ");
+        String name = separator > 0 ? text.substring(0, separator) : text.endsWith(":") ? text.substring(0, text.length() - 1) : null;
+        if (name == null || name.isEmpty()) {
+            return;
+        }
+        String key = yamlParents.isEmpty() ? unquote(name) : yamlParents.peek().key() + "." + unquote(name);
+        if (separator > 0) {
+            onKey(key, text.substring(separator + 2).trim());
+        } else {
+            yamlParents.push(new YamlParent(indent, key, false));
+        }
+    }
+
+    private void onKey(String key, String value) {
+        textKeys++;
+        if (summaryKeys.contains(key)) {
+            selectedValues.putIfAbsent(key, masker.mask(key, value));
+        }
+    }
+
+    private static String unquote(String name) {
+        if (name.length() >= 2 && (name.charAt(0) == '\'' || name.charAt(0) == '"')
+                && name.charAt(name.length() - 1) == name.charAt(0)) {
+            String unquoted = name.substring(1, name.length() - 1);
+            // Keys with dots are written as '[a.b]' so that they are not split into parents
+            return unquoted.startsWith("[") && unquoted.endsWith("]") ? unquoted.substring(1, unquoted.length() - 1) : unquoted;
+        }
+        return name;
+    }
+
+    private static int indexOfSeparator(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ':' || c == '=') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record YamlParent(int indent, String key, boolean counted) {
+    }
+}
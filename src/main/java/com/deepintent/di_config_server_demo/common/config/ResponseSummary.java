@@ -0,0 +1,53 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact description of a config response: which sources it carried, how many keys each had and the
+ * (already masked) values of the keys listed in {@code deepintent.config-server.request-logging.summary-keys}.
+ */
+public record ResponseSummary(String format,
+                              long bytes,
+                              String application,
+                              String version,
+                              List<Source> sources,
+                              Map<String, String> selectedValues) {
+
+    public record Source(String name, int keyCount) {
+    }
+
+    public int keyCount() {
+        int keys = 0;
+        for (Source source : sources) {
+            keys += source.keyCount();
+        }
+        return keys;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(128)
+                .append("format=").append(format)
+                .append(" bytes=").append(bytes)
+                .append(" keys=").append(keyCount());
+        if (version != null) {
+            builder.append(" version=").append(version);
+        }
+        if (!sources.isEmpty()) {
+            builder.append(" sources=[");
+            for (int i = 0; i < sources.size(); i++) {
+                Source source = sources.get(i);
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(source.name()).append('(').append(source.keyCount()).append(')');
+            }
+            builder.append(']');
+        }
+        if (!selectedValues.isEmpty()) {
+            builder.append(" values=").append(selectedValues);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.service.DecryptedValueCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class SensitiveValueMasker {
+
+    private final ObjectProvider<DecryptedValueCache> decryptedValues;
+
+    public String mask(String key, String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+
+        // Keys that held {cipher} values are hidden entirely, whatever they are called
+        DecryptedValueCache decrypted = decryptedValues.getIfAvailable();
+        if (decrypted != null && decrypted.isDecryptedKey(key)) {
+            return "******";
+        }
+
+        if (isSensitiveKey(key)) {
+            if (value.length() > 8) {
+                return value.substring(0, 4) + "***" + value.substring(value.length() - 4);
+            }
+            return "***";
+        }
+
+        return value;
+    }
+
+    /**
+     * @return whether {@code text} may be logged as a whole, i.e. contains no decrypted value
+     */
+    public boolean isSafeToLog(String text) {
+        DecryptedValueCache decrypted = decryptedValues.getIfAvailable();
+        return decrypted == null || !decrypted.appearsIn(text);
+    }
+
+    private boolean isSensitiveKey(String key) {
+        String lowerKey = key.toLowerCase();
+        return lowerKey.contains("password") ||
+            lowerKey.contains("token") ||
+            lowerKey.contains("secret") ||
+            (lowerKey.contains("key") && (lowerKey.contains("api") || lowerKey.contains("auth")));
+    }
+}
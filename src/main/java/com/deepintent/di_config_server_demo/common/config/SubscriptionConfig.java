@@ -0,0 +1,24 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class SubscriptionConfig {
+
+    @Value("${deepintent.config-server.subscriptions.watch-interval:5s}")
+    private Duration watchInterval;
+
+    @Value("${deepintent.config-server.subscriptions.heartbeat-interval:30s}")
+    private Duration heartbeatInterval;
+
+    @Value("${deepintent.config-server.subscriptions.sse-timeout:30m}")
+    private Duration sseTimeout;
+
+    @Value("${deepintent.config-server.subscriptions.long-poll-timeout:30s}")
+    private Duration longPollTimeout;
+}
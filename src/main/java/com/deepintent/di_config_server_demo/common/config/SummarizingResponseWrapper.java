@@ -0,0 +1,121 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Passes the body straight through to the client while feeding a {@link ResponseSummarizer}.
+ * Unlike {@code ContentCachingResponseWrapper} nothing is buffered or copied.
+ */
+public class SummarizingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final ResponseSummarizer summarizer;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private ResponseSummary presetSummary;
+    private long presetBytes;
+
+    public SummarizingResponseWrapper(HttpServletResponse response, ResponseSummarizer summarizer) {
+        super(response);
+        this.summarizer = summarizer;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new SummarizingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * Reports {@code summary} instead of summarizing the body, which is then only counted. Used when the
+     * body was summarized when it was rendered, and may be written compressed.
+     */
+    public void useSummary(ResponseSummary summary) {
+        this.presetSummary = summary;
+    }
+
+    public ResponseSummary finish() {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (presetSummary != null) {
+            return new ResponseSummary(presetSummary.format(), presetBytes, presetSummary.application(),
+                    presetSummary.version(), presetSummary.sources(), presetSummary.selectedValues());
+        }
+        return summarizer.summarize();
+    }
+
+    private void accept(byte[] buffer, int offset, int length) {
+        if (presetSummary != null) {
+            presetBytes += length;
+        } else {
+            summarizer.accept(getContentType(), buffer, offset, length);
+        }
+    }
+
+    private class SummarizingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final byte[] single = new byte[1];
+
+        SummarizingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            single[0] = (byte) b;
+            accept(single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            accept(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.service.CachingTextEncryptorLocator;
+import com.deepintent.di_config_server_demo.common.service.DecryptedValueCache;
+import com.deepintent.di_config_server_demo.common.service.KeyRecordingEnvironmentEncryptor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+import org.springframework.cloud.config.server.encryption.TextEncryptorLocator;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Routes decryption by the config server's {@code TextEncryptorLocator}, and so its {@code EnvironmentEncryptor}
+ * and {@code /decrypt} endpoint, through the {@link DecryptedValueCache}, and has its {@code EnvironmentEncryptor}
+ * report which property keys it decrypts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TextEncryptorLocatorPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<DecryptedValueCache> decryptedValues;
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof EnvironmentEncryptor encryptor && !(bean instanceof KeyRecordingEnvironmentEncryptor)) {
+            DecryptedValueCache cache = decryptedValues.getIfAvailable();
+            return cache != null ? new KeyRecordingEnvironmentEncryptor(encryptor, cache) : bean;
+        }
+        if (!(bean instanceof TextEncryptorLocator locator) || bean instanceof CachingTextEncryptorLocator) {
+            return bean;
+        }
+        DecryptedValueCache cache = decryptedValues.getIfAvailable();
+        if (cache == null) {
+            return bean;
+        }
+        log.info("Caching values decrypted through '{}'", beanName);
+        return new CachingTextEncryptorLocator(locator, cache);
+    }
+}
@@ -0,0 +1,31 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Getter
+@Configuration
+public class ThreadingConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * An executor for blocking backend I/O: a virtual thread per task when virtual threads are enabled,
+     * otherwise {@code platformThreads} daemon threads. Concurrency towards the backend is bounded by its
+     * {@code BackendBulkhead} either way.
+     */
+    public ExecutorService newBlockingExecutor(String threadNamePrefix, int platformThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(platformThreads, threadFactory);
+    }
+}
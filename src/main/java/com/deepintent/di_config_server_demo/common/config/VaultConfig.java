@@ -0,0 +1,72 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.repository.VaultSecretSource;
+import com.deepintent.di_config_server_demo.common.repository.VaultTemplateSecretSource;
+import com.deepintent.di_config_server_demo.common.service.Bulkheads;
+import com.deepintent.di_config_server_demo.common.service.ConfigServerMetrics;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.vault.authentication.TokenAuthentication;
+import org.springframework.vault.client.VaultEndpoint;
+import org.springframework.vault.core.VaultTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class VaultConfig {
+
+    @Value("${deepintent.config-server.vault.enabled:false}")
+    private boolean enabled;
+
+    @Value("${deepintent.config-server.vault.uri:http://127.0.0.1:8200}")
+    private URI uri;
+
+    @Value("${deepintent.config-server.vault.token:}")
+    private String token;
+
+    @Value("${deepintent.config-server.vault.backend:secret}")
+    private String backend;
+
+    @Value("${deepintent.config-server.vault.kv-version:2}")
+    private int kvVersion;
+
+    @Value("${deepintent.config-server.vault.default-key:application}")
+    private String defaultKey;
+
+    @Value("${deepintent.config-server.vault.profile-separator:,}")
+    private String profileSeparator;
+
+    @Value("${deepintent.config-server.vault.cache.default-ttl:5m}")
+    private Duration defaultTtl;
+
+    @Value("${deepintent.config-server.vault.cache.refresh-ahead:0.8}")
+    private double refreshAhead;
+
+    @Value("${deepintent.config-server.vault.cache.max-stale:10m}")
+    private Duration maxStale;
+
+    @Value("${deepintent.config-server.vault.cache.idle-timeout:30m}")
+    private Duration idleTimeout;
+
+    @Value("${deepintent.config-server.vault.cache.read-timeout:2s}")
+    private Duration readTimeout;
+
+    @Value("${deepintent.config-server.vault.cache.read-concurrency:4}")
+    private int readConcurrency;
+
+    @Value("${deepintent.config-server.vault.cache.sweep-interval:5s}")
+    private Duration sweepInterval;
+
+    @Bean
+    @ConditionalOnProperty(name = "deepintent.config-server.vault.enabled", havingValue = "true")
+    public VaultSecretSource vaultSecretSource(ConfigServerMetrics metrics, Bulkheads bulkheads) {
+        VaultTemplate template = new VaultTemplate(VaultEndpoint.from(uri), new TokenAuthentication(token));
+        VaultSecretSource source = new VaultTemplateSecretSource(template, backend, kvVersion);
+        return key -> bulkheads.vault().call(() -> metrics.recordVaultRead(() -> source.read(key)));
+    }
+}
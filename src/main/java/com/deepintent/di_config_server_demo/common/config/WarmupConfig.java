@@ -0,0 +1,52 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@Configuration
+@RequiredArgsConstructor
+public class WarmupConfig {
+
+    @Getter(AccessLevel.NONE)
+    private final Environment environment;
+
+    @Value("${deepintent.config-server.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${deepintent.config-server.warmup.discover:true}")
+    private boolean discover;
+
+    @Value("${deepintent.config-server.warmup.parallelism:8}")
+    private int parallelism;
+
+    @Value("${deepintent.config-server.warmup.deadline:60s}")
+    private Duration deadline;
+
+    /**
+     * Entries of the form {@code application/profiles[/label]}; without a label the default label is used.
+     */
+    public List<String> getManifest() {
+        return Binder.get(environment)
+                .bind("deepintent.config-server.warmup.manifest", Bindable.listOf(String.class))
+                .orElse(List.of());
+    }
+
+    /**
+     * Labels discovered applications are warmed for; empty means the default label only.
+     */
+    public List<String> getLabels() {
+        return Binder.get(environment)
+                .bind("deepintent.config-server.warmup.labels", Bindable.listOf(String.class))
+                .orElse(List.of());
+    }
+}
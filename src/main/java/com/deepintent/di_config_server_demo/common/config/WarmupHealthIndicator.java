@@ -0,0 +1,38 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.service.ConfigWarmupService;
+import com.deepintent.di_config_server_demo.common.service.WarmupStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code warmup} health: DOWN until the startup warm-up has finished or its deadline passed. Part of the
+ * readiness group, so a new replica only receives traffic once its caches are hot. Always UP when warm-up
+ * is disabled; the indicator stays registered so the readiness group keeps resolving.
+ */
+@Component("warmup")
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final ObjectProvider<ConfigWarmupService> warmupService;
+
+    @Override
+    public Health health() {
+        ConfigWarmupService service = warmupService.getIfAvailable();
+        if (service == null) {
+            return Health.up().withDetail("state", "DISABLED").build();
+        }
+        WarmupStatus status = service.getStatus();
+        Health.Builder health = status.done() ? Health.up() : Health.down();
+        return health
+                .withDetail("state", status.state())
+                .withDetail("targets", status.targets())
+                .withDetail("resolved", status.resolved())
+                .withDetail("failed", status.failed())
+                .withDetail("elapsedMillis", status.elapsedMillis())
+                .build();
+    }
+}
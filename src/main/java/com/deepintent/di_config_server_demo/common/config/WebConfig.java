@@ -1,8 +1,48 @@
 package com.deepintent.di_config_server_demo.common.config;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
-public class WebConfig {
-}
+public class WebConfig implements WebMvcConfigurer {
+
+    private static final String HANDLER_START_ATTRIBUTE = WebConfig.class.getName() + ".handlerStart";
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerTimingInterceptor());
+    }
 
+    /**
+     * Measures the handler phase of environment requests, i.e. resolution plus writing the body.
+     */
+    private static class HandlerTimingInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(@NonNull HttpServletRequest request,
+                                 @NonNull HttpServletResponse response,
+                                 @NonNull Object handler) {
+            if (request.getAttribute(ConfigRequestTimings.ATTRIBUTE) != null) {
+                request.setAttribute(HANDLER_START_ATTRIBUTE, System.nanoTime());
+            }
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull Object handler,
+                                    Exception ex) {
+            Object timings = request.getAttribute(ConfigRequestTimings.ATTRIBUTE);
+            Object start = request.getAttribute(HANDLER_START_ATTRIBUTE);
+            if (timings instanceof ConfigRequestTimings requestTimings && start instanceof Long startNanos) {
+                requestTimings.addHandlerNanos(System.nanoTime() - startNanos);
+            }
+        }
+    }
+}
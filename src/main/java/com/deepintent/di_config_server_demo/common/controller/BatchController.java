@@ -0,0 +1,67 @@
+package com.deepintent.di_config_server_demo.common.controller;
+
+import com.deepintent.di_config_server_demo.common.config.BatchConfig;
+import com.deepintent.di_config_server_demo.common.service.BatchEntry;
+import com.deepintent.di_config_server_demo.common.service.BatchResolutionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * {@code POST /batch} with a JSON array of {@link BatchEntry}; answers with one JSON line per entry
+ * ({@code application/x-ndjson}), written as each entry resolves.
+ */
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchResolutionService batchService;
+    private final BatchConfig config;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> batch(@RequestBody List<BatchEntry> entries) {
+        if (entries.isEmpty() || entries.size() > config.getMaxEntries()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch must have between 1 and " + config.getMaxEntries() + " entries");
+        }
+        for (BatchEntry entry : entries) {
+            if (!StringUtils.hasText(entry.application()) || !StringUtils.hasText(entry.profiles())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every entry needs an application and profiles");
+            }
+        }
+
+        StreamingResponseBody body = out -> {
+            try {
+                batchService.resolve(entries, result -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(result));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -0,0 +1,41 @@
+package com.deepintent.di_config_server_demo.common.controller;
+
+import com.deepintent.di_config_server_demo.common.service.ConfigChange;
+import com.deepintent.di_config_server_demo.common.service.ConfigSubscriptionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/subscribe")
+@RequiredArgsConstructor
+public class ConfigSubscriptionController {
+
+    private final ConfigSubscriptionService subscriptionService;
+
+    @GetMapping(path = "/{application}/{profiles}/{label}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable String application,
+                                @PathVariable String profiles,
+                                @PathVariable String label) {
+        return subscriptionService.subscribe(topic(application, profiles, label));
+    }
+
+    @GetMapping(path = "/{application}/{profiles}/{label}/poll", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<ResponseEntity<ConfigChange>> poll(@PathVariable String application,
+                                                             @PathVariable String profiles,
+                                                             @PathVariable String label,
+                                                             @RequestParam(name = "version", required = false) String version) {
+        return subscriptionService.poll(topic(application, profiles, label), version);
+    }
+
+    private ConfigSubscriptionService.Topic topic(String application, String profiles, String label) {
+        return new ConfigSubscriptionService.Topic(application, profiles, label.replace("(_)", "/"));
+    }
+}
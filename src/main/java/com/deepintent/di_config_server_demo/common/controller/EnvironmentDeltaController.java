@@ -0,0 +1,37 @@
+package com.deepintent.di_config_server_demo.common.controller;
+
+import com.deepintent.di_config_server_demo.common.service.EnvironmentDelta;
+import com.deepintent.di_config_server_demo.common.service.EnvironmentDeltaService;
+import lombok.RequiredArgsConstructor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.springframework.cloud.config.server.environment.NoSuchLabelException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/delta")
+@RequiredArgsConstructor
+public class EnvironmentDeltaController {
+
+    private final EnvironmentDeltaService deltaService;
+
+    @GetMapping("/{application}/{profiles}/{label}")
+    public EnvironmentDelta delta(@PathVariable String application,
+                                  @PathVariable String profiles,
+                                  @PathVariable String label,
+                                  @RequestParam(name = "since", required = false) String since) {
+        if (since != null && !ObjectId.isId(since)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'since' must be a full commit id");
+        }
+        try {
+            return deltaService.delta(application, profiles, label.replace("(_)", "/"), since);
+        } catch (NoSuchLabelException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+}
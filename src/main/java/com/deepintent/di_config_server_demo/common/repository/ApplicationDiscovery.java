@@ -0,0 +1,120 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import lombok.RequiredArgsConstructor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Lists the applications a commit has config for, from the directories of the {@code {application}} search
+ * paths (such as {@code services/{application}}), together with the profiles their file names carry.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "deepintent.config-server.git-refresh.enabled",
+    havingValue = "true"
+)
+@RequiredArgsConstructor
+public class ApplicationDiscovery {
+
+    private static final String DEFAULT_PROFILE = "default";
+
+    private final GitRefreshScheduler scheduler;
+    private final GitConfig gitConfig;
+
+    private volatile KnownApplications known;
+
+    /**
+     * Applications with config at the default label's current commit, listed again only once the label moved.
+     * Empty until the mirror is in place.
+     */
+    public Set<String> knownApplications() {
+        String version = scheduler.resolve(gitConfig.getDefaultLabel());
+        if (version == null) {
+            return Set.of();
+        }
+        KnownApplications current = known;
+        if (current == null || !current.version().equals(version)) {
+            current = new KnownApplications(version, Set.copyOf(discover(version).keySet()));
+            known = current;
+        }
+        return current.applications();
+    }
+
+    /**
+     * Application name to profiles found for it; every application has at least the {@code default} profile.
+     */
+    public Map<String, Set<String>> discover(String version) {
+        List<String> prefixes = applicationPrefixes();
+        Map<String, Set<String>> applications = new TreeMap<>();
+        Repository repository = scheduler.getRepository();
+        if (prefixes.isEmpty() || repository == null) {
+            return applications;
+        }
+
+        try (RevWalk walk = new RevWalk(repository); TreeWalk treeWalk = new TreeWalk(repository)) {
+            treeWalk.addTree(walk.parseCommit(ObjectId.fromString(version)).getTree());
+            treeWalk.setRecursive(true);
+            treeWalk.setFilter(PathFilterGroup.createFromStrings(
+                    prefixes.stream().map(prefix -> prefix.substring(0, prefix.length() - 1)).toList()));
+            while (treeWalk.next()) {
+                String path = treeWalk.getPathString();
+                if (!ParsedConfigFile.isConfigFile(path)) {
+                    continue;
+                }
+                for (String prefix : prefixes) {
+                    if (path.startsWith(prefix)) {
+                        addFile(applications, path.substring(prefix.length()));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list applications of " + version, e);
+        }
+        return applications;
+    }
+
+    private List<String> applicationPrefixes() {
+        List<String> prefixes = new ArrayList<>();
+        for (String prefix : gitConfig.searchRoots()) {
+            // Shared layers hold no application directories, and an empty prefix would list the whole repository
+            if (!prefix.isEmpty() && !gitConfig.sharedSearchPrefixes().contains(prefix)) {
+                prefixes.add(prefix);
+            }
+        }
+        return prefixes;
+    }
+
+    private record KnownApplications(String version, Set<String> applications) {
+    }
+
+    private static void addFile(Map<String, Set<String>> applications, String relativePath) {
+        int slash = relativePath.indexOf('/');
+        if (slash <= 0 || relativePath.indexOf('/', slash + 1) >= 0) {
+            return;
+        }
+        String application = relativePath.substring(0, slash);
+        String fileName = relativePath.substring(slash + 1, relativePath.lastIndexOf('.'));
+        Set<String> profiles = applications.computeIfAbsent(application, name -> new TreeSet<>(Set.of(DEFAULT_PROFILE)));
+        for (String base : List.of(application + "-", "application-")) {
+            if (fileName.startsWith(base) && fileName.length() > base.length()) {
+                profiles.add(fileName.substring(base.length()));
+                return;
+            }
+        }
+    }
+}
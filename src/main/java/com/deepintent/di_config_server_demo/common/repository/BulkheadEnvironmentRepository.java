@@ -0,0 +1,45 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.service.BackendBulkhead;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.core.Ordered;
+
+/**
+ * Runs every load that reaches the git-backed repository through the git {@link BackendBulkhead}.
+ * Sits below the environment cache, so cache hits take no permit.
+ */
+public class BulkheadEnvironmentRepository implements EnvironmentRepository, SearchPathLocator, Ordered {
+
+    private final EnvironmentRepository delegate;
+    private final SearchPathLocator locator;
+    private final BackendBulkhead bulkhead;
+
+    public BulkheadEnvironmentRepository(EnvironmentRepository delegate, SearchPathLocator locator,
+                                         BackendBulkhead bulkhead) {
+        this.delegate = delegate;
+        this.locator = locator;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne(application, profile, label, false);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        return bulkhead.call(() -> delegate.findOne(application, profile, label, includeOrigin));
+    }
+
+    @Override
+    public Locations getLocations(String application, String profile, String label) {
+        return locator.getLocations(application, profile, label);
+    }
+
+    @Override
+    public int getOrder() {
+        return delegate instanceof Ordered ordered ? ordered.getOrder() : Ordered.LOWEST_PRECEDENCE;
+    }
+}
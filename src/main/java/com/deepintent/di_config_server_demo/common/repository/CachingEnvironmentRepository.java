@@ -0,0 +1,155 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches resolved environments per (application, profiles, label, commit id).
+ * <p>
+ * The commit id comes from a {@link LabelVersionResolver}, so a hit never touches the working tree.
+ * Concurrent misses for the same key share one load, and entries of a label are only evicted once
+ * that label is seen pointing at a different commit.
+ */
+@Slf4j
+public class CachingEnvironmentRepository implements EnvironmentRepository, SearchPathLocator, Ordered {
+
+    private final EnvironmentRepository delegate;
+    private final SearchPathLocator locator;
+    private final LabelVersionResolver versionResolver;
+    private final AsyncCache<EnvironmentKey, Environment> cache;
+    private final Map<String, String> currentVersions = new ConcurrentHashMap<>();
+
+    public CachingEnvironmentRepository(EnvironmentRepository delegate,
+                                        SearchPathLocator locator,
+                                        LabelVersionResolver versionResolver,
+                                        long maximumWeight,
+                                        Duration expireAfterAccess) {
+        this.delegate = delegate;
+        this.locator = locator;
+        this.versionResolver = versionResolver;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((EnvironmentKey key, Environment environment) -> weigh(environment))
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .buildAsync();
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne(application, profile, label, false);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        String version = versionResolver.resolve(label);
+        if (version == null) {
+            log.debug("No commit resolved for label '{}', bypassing environment cache", label);
+            return delegate.findOne(application, profile, label, includeOrigin);
+        }
+
+        String labelKey = label != null ? label : "";
+        if (LabelPins.pinned(label) == null) {
+            // A pinned commit may already be behind the label; it says nothing about where the label is now
+            onVersionResolved(labelKey, version);
+        }
+
+        EnvironmentKey key = new EnvironmentKey(application, profile, labelKey, version, includeOrigin);
+        CompletableFuture<Environment> loading = new CompletableFuture<>();
+        CompletableFuture<Environment> existing = cache.asMap().putIfAbsent(key, loading);
+        if (existing != null) {
+            return copyOf(await(existing));
+        }
+
+        Environment environment;
+        try {
+            environment = delegate.findOne(application, profile, label, includeOrigin);
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        loading.complete(environment);
+        if (environment == null || (environment.getVersion() != null && !version.equals(environment.getVersion()))) {
+            // The label moved while loading; serve the result but do not file it under the older commit.
+            cache.asMap().remove(key, loading);
+        }
+        return copyOf(environment);
+    }
+
+    @Override
+    public Locations getLocations(String application, String profile, String label) {
+        return locator.getLocations(application, profile, label);
+    }
+
+    @Override
+    public int getOrder() {
+        return delegate instanceof Ordered ordered ? ordered.getOrder() : Ordered.LOWEST_PRECEDENCE;
+    }
+
+    public AsyncCache<EnvironmentKey, Environment> getCache() {
+        return cache;
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+        currentVersions.clear();
+    }
+
+    private void onVersionResolved(String label, String version) {
+        String previous = currentVersions.put(label, version);
+        if (previous != null && !previous.equals(version)) {
+            log.info("Label '{}' moved from {} to {}, evicting cached environments", label, previous, version);
+            cache.asMap().keySet().removeIf(key -> key.label().equals(label) && !key.version().equals(version));
+        }
+    }
+
+    private static Environment await(CompletableFuture<Environment> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Environment copyOf(Environment environment) {
+        if (environment == null) {
+            return null;
+        }
+        Environment copy = new Environment(environment);
+        copy.addAll(environment.getPropertySources());
+        return copy;
+    }
+
+    private static int weigh(Environment environment) {
+        int weight = 1;
+        for (PropertySource source : environment.getPropertySources()) {
+            weight += source.getSource().size();
+        }
+        return weight;
+    }
+
+    public record EnvironmentKey(String application, String profile, String label, String version,
+                                 boolean includeOrigin) {
+
+        public EnvironmentKey {
+            Objects.requireNonNull(label, "label");
+            Objects.requireNonNull(version, "version");
+        }
+    }
+}
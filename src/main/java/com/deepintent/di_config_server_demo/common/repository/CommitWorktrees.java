@@ -0,0 +1,209 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import com.deepintent.di_config_server_demo.common.config.GitRefreshConfig;
+import com.deepintent.di_config_server_demo.common.service.ConfigServerMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-only, per-commit copies of the searched parts of the repository. Each commit is written once to its
+ * own directory and never modified afterwards, so labels on different commits never share a working tree
+ * and readers need no locks. Evicted directories are deleted after a grace period.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(
+    name = "deepintent.config-server.git-refresh.enabled",
+    havingValue = "true"
+)
+public class CommitWorktrees {
+
+    private final GitRefreshScheduler scheduler;
+    private final GitConfig gitConfig;
+    private final ConfigServerMetrics metrics;
+    private final Path root;
+    private final Duration removalDelay;
+    private final ScheduledExecutorService cleaner;
+    private final Cache<String, CompletableFuture<Path>> worktrees;
+
+    public CommitWorktrees(GitRefreshScheduler scheduler, GitConfig gitConfig, GitRefreshConfig config,
+                           ConfigServerMetrics metrics) {
+        this(scheduler, gitConfig, config, metrics, newCleaner());
+    }
+
+    CommitWorktrees(GitRefreshScheduler scheduler, GitConfig gitConfig, GitRefreshConfig config,
+                    ConfigServerMetrics metrics, ScheduledExecutorService cleaner) {
+        this.scheduler = scheduler;
+        this.gitConfig = gitConfig;
+        this.metrics = metrics;
+        this.root = Path.of(config.getBasedir(), "worktrees");
+        this.removalDelay = config.getWorktreeRemovalDelay();
+        this.cleaner = cleaner;
+        this.worktrees = Caffeine.newBuilder()
+                .maximumSize(config.getMaxWorktrees())
+                // Evictions only schedule the removal, so they are handled on the thread that caused them
+                .executor(Runnable::run)
+                .removalListener((String version, CompletableFuture<Path> worktree, RemovalCause cause) -> {
+                    if (version != null && cause.wasEvicted()) {
+                        scheduleRemoval(version);
+                    }
+                })
+                .build();
+    }
+
+    private static ScheduledExecutorService newCleaner() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("git-worktree-cleaner-");
+        threadFactory.setDaemon(true);
+        return Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @PreDestroy
+    public void stop() {
+        cleaner.shutdownNow();
+    }
+
+    public Path checkout(String version) {
+        CompletableFuture<Path> loading = new CompletableFuture<>();
+        CompletableFuture<Path> existing = worktrees.asMap().putIfAbsent(version, loading);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            Path worktree = materialize(version);
+            loading.complete(worktree);
+            return worktree;
+        } catch (RuntimeException e) {
+            worktrees.asMap().remove(version, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Path materialize(String version) {
+        Path target = root.resolve(version);
+        if (Files.isDirectory(target)) {
+            return target;
+        }
+
+        Repository repository = scheduler.getRepository();
+        long start = System.nanoTime();
+        Path staging = root.resolve(version + ".tmp-" + Thread.currentThread().threadId());
+        int files = 0;
+        long bytes = 0;
+        try (RevWalk walk = new RevWalk(repository);
+             ObjectReader reader = repository.newObjectReader();
+             TreeWalk treeWalk = new TreeWalk(repository, reader)) {
+            treeWalk.addTree(walk.parseCommit(ObjectId.fromString(version)).getTree());
+            treeWalk.setRecursive(true);
+            List<String> roots = gitConfig.searchRootDirectories();
+            if (!roots.isEmpty()) {
+                treeWalk.setFilter(PathFilterGroup.createFromStrings(roots));
+            }
+
+            FileSystemUtils.deleteRecursively(staging);
+            Files.createDirectories(staging);
+            while (treeWalk.next()) {
+                FileMode mode = treeWalk.getFileMode(0);
+                if (mode.getObjectType() != Constants.OBJ_BLOB || mode == FileMode.SYMLINK) {
+                    continue;
+                }
+                Path file = staging.resolve(treeWalk.getPathString());
+                Files.createDirectories(file.getParent());
+                try (OutputStream out = Files.newOutputStream(file)) {
+                    ObjectLoader blob = reader.open(treeWalk.getObjectId(0));
+                    blob.copyTo(out);
+                    bytes += blob.getSize();
+                }
+                files++;
+            }
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(staging);
+            if (Files.isDirectory(target)) {
+                return target;
+            }
+            throw new UncheckedIOException("Could not check out " + version, e);
+        }
+        long elapsed = System.nanoTime() - start;
+        metrics.recordGitCheckout("worktree", elapsed);
+        metrics.recordGitBytesRead("worktree", bytes);
+        log.info("Checked out {} files of {} in {} ms", files, version, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return target;
+    }
+
+    /**
+     * The directory is moved aside atomically with the check that the version was not checked out again,
+     * so a new checkout either still finds the entry and keeps the directory, or finds neither and writes it
+     * anew. Only the moved directory is deleted.
+     */
+    private void scheduleRemoval(String version) {
+        cleaner.schedule(() -> {
+            Path removed = root.resolve(version + ".removed-" + System.nanoTime());
+            boolean[] moved = new boolean[1];
+            worktrees.asMap().compute(version, (key, worktree) -> {
+                if (worktree == null) {
+                    moved[0] = moveQuietly(root.resolve(version), removed);
+                }
+                return worktree;
+            });
+            if (moved[0]) {
+                log.debug("Removing worktree of {}", version);
+                deleteQuietly(removed);
+            }
+        }, removalDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static boolean moveQuietly(Path source, Path target) {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            log.debug("Could not move {} aside: {}", source, e.getMessage());
+            return false;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            FileSystemUtils.deleteRecursively(path);
+        } catch (IOException e) {
+            log.debug("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+}
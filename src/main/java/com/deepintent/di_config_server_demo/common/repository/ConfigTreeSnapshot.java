@@ -0,0 +1,26 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+import java.util.Map;
+
+/**
+ * The config files of one commit, indexed by repository path. Files of the shared layers are held parsed
+ * in {@code sharedFiles}; all others only by blob id, their parsed content lives in the blob-keyed cache of
+ * {@link ConfigTreeSnapshots} and is shared between commits.
+ */
+public record ConfigTreeSnapshot(String version, Map<String, ObjectId> files, Map<String, SharedConfigFile> sharedFiles) {
+
+    public ConfigTreeSnapshot {
+        files = Map.copyOf(files);
+        sharedFiles = Map.copyOf(sharedFiles);
+    }
+
+    public ObjectId blob(String path) {
+        return files.get(path);
+    }
+
+    public SharedConfigFile sharedFile(String path) {
+        return sharedFiles.get(path);
+    }
+}
@@ -0,0 +1,161 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import com.deepintent.di_config_server_demo.common.config.GitRefreshConfig;
+import com.deepintent.di_config_server_demo.common.service.ConfigServerMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads commits straight from the mirror's object database: no checkout and no files on disk.
+ * Snapshots are cached per commit id, parsed files per blob id, so commits that reuse a blob share its
+ * parsed form.
+ * <p>
+ * Files of the shared layers are parsed when a snapshot is built. Only blobs that differ from the previously
+ * built snapshot are parsed again; unchanged files, including their property sources, are carried over by
+ * reference.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(
+    name = "deepintent.config-server.git-refresh.enabled",
+    havingValue = "true"
+)
+public class ConfigTreeSnapshots {
+
+    private final GitRefreshScheduler scheduler;
+    private final GitConfig gitConfig;
+    private final ConfigServerMetrics metrics;
+    private final Cache<String, ConfigTreeSnapshot> snapshots;
+    private final Cache<BlobKey, ParsedConfigFile> parsedFiles;
+    private volatile ConfigTreeSnapshot latest;
+
+    public ConfigTreeSnapshots(GitRefreshScheduler scheduler, GitConfig gitConfig, GitRefreshConfig config,
+                               ConfigServerMetrics metrics) {
+        this.scheduler = scheduler;
+        this.gitConfig = gitConfig;
+        this.metrics = metrics;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSnapshots())
+                .recordStats()
+                .build();
+        this.parsedFiles = Caffeine.newBuilder()
+                .maximumWeight(config.getParsedBlobMaximumWeight())
+                .weigher((BlobKey blob, ParsedConfigFile file) -> file.getPropertyCount() + 1)
+                .recordStats()
+                .build();
+    }
+
+    public ConfigTreeSnapshot snapshot(String version) {
+        return snapshots.get(version, this::readTree);
+    }
+
+    public ParsedConfigFile parsed(String path, ObjectId blob) {
+        return parsedFiles.get(new BlobKey(blob, ParsedConfigFile.isPropertiesFile(path)), key -> {
+            try (ObjectReader reader = scheduler.getRepository().newObjectReader()) {
+                byte[] content = reader.open(blob, Constants.OBJ_BLOB).getBytes();
+                metrics.recordGitBytesRead("object", content.length);
+                return ParsedConfigFile.parse(path, content);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + path + " (" + blob.name() + ")", e);
+            }
+        });
+    }
+
+    public String propertySourceName(String path) {
+        return StringUtils.trimTrailingCharacter(gitConfig.getUri(), '/') + "/" + path;
+    }
+
+    public Cache<String, ConfigTreeSnapshot> getSnapshots() {
+        return snapshots;
+    }
+
+    public Cache<BlobKey, ParsedConfigFile> getParsedFiles() {
+        return parsedFiles;
+    }
+
+    private ConfigTreeSnapshot readTree(String version) {
+        Repository repository = scheduler.getRepository();
+        long start = System.nanoTime();
+        try (RevWalk walk = new RevWalk(repository); TreeWalk treeWalk = new TreeWalk(repository)) {
+            treeWalk.addTree(walk.parseCommit(ObjectId.fromString(version)).getTree());
+            treeWalk.setRecursive(true);
+            List<String> roots = gitConfig.searchRootDirectories();
+            if (!roots.isEmpty()) {
+                treeWalk.setFilter(PathFilterGroup.createFromStrings(roots));
+            }
+
+            Map<String, ObjectId> files = new HashMap<>();
+            while (treeWalk.next()) {
+                String path = treeWalk.getPathString();
+                if (treeWalk.getFileMode(0) == FileMode.REGULAR_FILE || treeWalk.getFileMode(0) == FileMode.EXECUTABLE_FILE) {
+                    if (ParsedConfigFile.isConfigFile(path)) {
+                        files.put(path, treeWalk.getObjectId(0));
+                    }
+                }
+            }
+            Map<String, SharedConfigFile> sharedFiles = indexSharedLayers(files, latest);
+            ConfigTreeSnapshot snapshot = new ConfigTreeSnapshot(version, files, sharedFiles);
+            latest = snapshot;
+            metrics.recordGitCheckout("object", System.nanoTime() - start);
+            log.debug("Indexed {} config files ({} shared) of {} in {} ms", files.size(), sharedFiles.size(), version,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read tree of " + version, e);
+        }
+    }
+
+    private Map<String, SharedConfigFile> indexSharedLayers(Map<String, ObjectId> files, ConfigTreeSnapshot previous) {
+        List<String> sharedPrefixes = gitConfig.sharedSearchPrefixes();
+        if (sharedPrefixes.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, SharedConfigFile> sharedFiles = new HashMap<>();
+        int parsed = 0;
+        for (Map.Entry<String, ObjectId> entry : files.entrySet()) {
+            String path = entry.getKey();
+            if (sharedPrefixes.stream().noneMatch(path::startsWith)) {
+                continue;
+            }
+            SharedConfigFile prior = previous != null ? previous.sharedFile(path) : null;
+            if (prior != null && prior.blob().equals(entry.getValue())) {
+                sharedFiles.put(path, prior);
+            } else {
+                ParsedConfigFile file = parsed(path, entry.getValue());
+                sharedFiles.put(path, new SharedConfigFile(entry.getValue(), file,
+                        file.toPropertySources(propertySourceName(path))));
+                parsed++;
+            }
+        }
+        log.debug("Shared layers: {} files, {} changed since {}", sharedFiles.size(), parsed,
+                previous != null ? previous.version() : "none");
+        return sharedFiles;
+    }
+
+    /**
+     * The same blob parses differently as YAML and as properties, so the loader is part of the key.
+     */
+    public record BlobKey(ObjectId blob, boolean properties) {
+    }
+}
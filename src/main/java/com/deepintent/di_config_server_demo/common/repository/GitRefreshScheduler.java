@@ -0,0 +1,314 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import com.deepintent.di_config_server_demo.common.config.GitRefreshConfig;
+import com.deepintent.di_config_server_demo.common.service.ConfigServerMetrics;
+import com.deepintent.di_config_server_demo.common.service.LabelCommitChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps a local bare mirror of the config repository up to date from a single background thread.
+ * <p>
+ * Fetches run on a fixed cadence or on demand through {@link #refresh()}, and concurrent on-demand
+ * requests share the fetch already in flight. Labels are resolved against the mirror's refs, so the
+ * request path never waits for the network. When a fetch moves a label, a {@link LabelCommitChangedEvent}
+ * with the paths touched between the two commits is published.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(
+    name = "deepintent.config-server.git-refresh.enabled",
+    havingValue = "true"
+)
+public class GitRefreshScheduler {
+
+    private static final RefSpec[] REF_SPECS = {
+        new RefSpec("+" + Constants.R_HEADS + "*:" + Constants.R_HEADS + "*"),
+        new RefSpec("+" + Constants.R_TAGS + "*:" + Constants.R_TAGS + "*")
+    };
+
+    private final GitConfig gitConfig;
+    private final GitRefreshConfig config;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConfigServerMetrics metrics;
+    private final ScheduledExecutorService executor;
+    private final AtomicReference<CompletableFuture<GitRefreshStatus>> inFlight = new AtomicReference<>();
+    private final AtomicLong refreshCount = new AtomicLong();
+
+    private volatile Git git;
+    private volatile Map<String, String> refs = Map.of();
+    private volatile Instant lastRefreshTime;
+    private volatile long lastRefreshDurationMillis;
+    private volatile String lastError;
+
+    public GitRefreshScheduler(GitConfig gitConfig, GitRefreshConfig config, ApplicationEventPublisher eventPublisher,
+                               ConfigServerMetrics metrics) {
+        this.gitConfig = gitConfig;
+        this.config = config;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("git-refresh-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!StringUtils.hasText(gitConfig.getUri())) {
+            log.warn("No git uri configured, background git refresh is idle");
+            return;
+        }
+        executor.execute(this::scheduledRefresh);
+        long interval = config.getInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::scheduledRefresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        Git current = git;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    public boolean isReady() {
+        return git != null && !refs.isEmpty();
+    }
+
+    public Repository getRepository() {
+        Git current = git;
+        return current != null ? current.getRepository() : null;
+    }
+
+    /**
+     * Resolves a label against the mirror. Unknown labels trigger an asynchronous refresh
+     * (at most once per {@code min-on-demand-interval}) and resolve to {@code null} for now.
+     * A label {@link LabelPins pinned} on the calling thread resolves to its pinned commit.
+     */
+    public String resolve(String label) {
+        String pinned = LabelPins.pinned(label);
+        if (pinned != null) {
+            return pinned;
+        }
+        String effectiveLabel = StringUtils.hasText(label) ? label : gitConfig.getDefaultLabel();
+        if (!StringUtils.hasText(effectiveLabel) || git == null) {
+            return null;
+        }
+
+        String version;
+        if (ObjectId.isId(effectiveLabel)) {
+            version = hasObject(effectiveLabel) ? effectiveLabel : null;
+        } else {
+            Map<String, String> current = refs;
+            version = current.get(Constants.R_HEADS + effectiveLabel);
+            if (version == null) {
+                version = current.get(Constants.R_TAGS + effectiveLabel);
+            }
+        }
+
+        if (version == null && isOnDemandRefreshAllowed()) {
+            log.debug("Label '{}' not in mirror, requesting refresh", effectiveLabel);
+            refresh();
+        }
+        return version;
+    }
+
+    public CompletableFuture<GitRefreshStatus> refresh() {
+        CompletableFuture<GitRefreshStatus> pending = new CompletableFuture<>();
+        CompletableFuture<GitRefreshStatus> existing = inFlight.compareAndExchange(null, pending);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> runRefresh(pending));
+        return pending;
+    }
+
+    public GitRefreshStatus getStatus() {
+        Map<String, String> labels = new HashMap<>();
+        refs.forEach((name, version) -> labels.put(Repository.shortenRefName(name), version));
+        return new GitRefreshStatus(isReady(), lastRefreshTime, lastRefreshDurationMillis, refreshCount.get(),
+                lastError, labels);
+    }
+
+    private void scheduledRefresh() {
+        CompletableFuture<GitRefreshStatus> pending = new CompletableFuture<>();
+        if (inFlight.compareAndSet(null, pending)) {
+            runRefresh(pending);
+        }
+    }
+
+    private void runRefresh(CompletableFuture<GitRefreshStatus> pending) {
+        long start = System.nanoTime();
+        long packBytes = packBytes();
+        try {
+            fetch();
+            lastError = null;
+            metrics.recordGitFetch(true, System.nanoTime() - start, Math.max(0, packBytes() - packBytes));
+        } catch (Exception e) {
+            log.warn("Git refresh failed: {}", e.getMessage());
+            lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+            metrics.recordGitFetch(false, System.nanoTime() - start, 0);
+        } finally {
+            lastRefreshTime = Instant.now();
+            lastRefreshDurationMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            refreshCount.incrementAndGet();
+            inFlight.set(null);
+        }
+        pending.complete(getStatus());
+    }
+
+    private void fetch() throws Exception {
+        if (git == null) {
+            git = openOrClone();
+        } else {
+            git.fetch()
+                    .setRemote(Constants.DEFAULT_REMOTE_NAME)
+                    .setRefSpecs(REF_SPECS)
+                    .setRemoveDeletedRefs(true)
+                    .setCredentialsProvider(gitConfig.credentialsProvider())
+                    .call();
+        }
+
+        Map<String, String> previous = refs;
+        Map<String, String> current = readRefs(git.getRepository());
+        refs = current;
+        publishChanges(previous, current);
+    }
+
+    /**
+     * Size of the mirror's packs; fetched packs are stored as received, so the growth is what was transferred.
+     */
+    private long packBytes() {
+        File[] packs = new File(config.getBasedir(), "mirror.git/objects/pack").listFiles((dir, name) -> name.endsWith(".pack"));
+        long bytes = 0;
+        if (packs != null) {
+            for (File pack : packs) {
+                bytes += pack.length();
+            }
+        }
+        return bytes;
+    }
+
+    private Git openOrClone() throws Exception {
+        File directory = new File(config.getBasedir(), "mirror.git");
+        if (new File(directory, "objects").isDirectory()) {
+            log.info("Opening git mirror at {}", directory);
+            Git existing = Git.open(directory);
+            existing.fetch()
+                    .setRemote(Constants.DEFAULT_REMOTE_NAME)
+                    .setRefSpecs(REF_SPECS)
+                    .setRemoveDeletedRefs(true)
+                    .setCredentialsProvider(gitConfig.credentialsProvider())
+                    .call();
+            return existing;
+        }
+        log.info("Cloning {} into git mirror at {}", gitConfig.getUri(), directory);
+        return Git.cloneRepository()
+                .setURI(gitConfig.getUri())
+                .setDirectory(directory)
+                .setBare(true)
+                .setCloneAllBranches(true)
+                .setCredentialsProvider(gitConfig.credentialsProvider())
+                .call();
+    }
+
+    private static Map<String, String> readRefs(Repository repository) throws IOException {
+        Map<String, String> versions = new HashMap<>();
+        for (Ref ref : repository.getRefDatabase().getRefsByPrefix(Constants.R_HEADS)) {
+            versions.put(ref.getName(), ref.getObjectId().name());
+        }
+        for (Ref ref : repository.getRefDatabase().getRefsByPrefix(Constants.R_TAGS)) {
+            Ref peeled = repository.getRefDatabase().peel(ref);
+            ObjectId id = peeled.getPeeledObjectId() != null ? peeled.getPeeledObjectId() : peeled.getObjectId();
+            versions.put(ref.getName(), id.name());
+        }
+        return Map.copyOf(versions);
+    }
+
+    private void publishChanges(Map<String, String> previous, Map<String, String> current) {
+        if (previous.isEmpty()) {
+            return;
+        }
+        current.forEach((name, version) -> {
+            String previousVersion = previous.get(name);
+            if (previousVersion == null || previousVersion.equals(version)) {
+                return;
+            }
+            String label = Repository.shortenRefName(name);
+            Set<String> changedPaths = changedPaths(previousVersion, version);
+            log.info("Label '{}' moved from {} to {} ({} paths changed)", label, previousVersion, version,
+                    changedPaths != null ? changedPaths.size() : "unknown");
+            eventPublisher.publishEvent(new LabelCommitChangedEvent(label, previousVersion, version, changedPaths));
+        });
+    }
+
+    private Set<String> changedPaths(String fromVersion, String toVersion) {
+        Repository repository = git.getRepository();
+        try (RevWalk walk = new RevWalk(repository); TreeWalk treeWalk = new TreeWalk(repository)) {
+            treeWalk.setRecursive(true);
+            treeWalk.addTree(walk.parseCommit(ObjectId.fromString(fromVersion)).getTree());
+            treeWalk.addTree(walk.parseCommit(ObjectId.fromString(toVersion)).getTree());
+            treeWalk.setFilter(TreeFilter.ANY_DIFF);
+
+            Set<String> paths = new HashSet<>();
+            for (DiffEntry entry : DiffEntry.scan(treeWalk)) {
+                if (!DiffEntry.DEV_NULL.equals(entry.getOldPath())) {
+                    paths.add(entry.getOldPath());
+                }
+                if (!DiffEntry.DEV_NULL.equals(entry.getNewPath())) {
+                    paths.add(entry.getNewPath());
+                }
+            }
+            return paths;
+        } catch (IOException e) {
+            log.debug("Could not diff {}..{}: {}", fromVersion, toVersion, e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean hasObject(String version) {
+        try {
+            return git.getRepository().getObjectDatabase().has(ObjectId.fromString(version));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean isOnDemandRefreshAllowed() {
+        Instant last = lastRefreshTime;
+        return last == null || last.plus(config.getMinOnDemandInterval()).isBefore(Instant.now());
+    }
+}
@@ -0,0 +1,12 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record GitRefreshStatus(boolean ready,
+                               Instant lastRefreshTime,
+                               long lastRefreshDurationMillis,
+                               long refreshCount,
+                               String lastError,
+                               Map<String, String> refs) {
+}
@@ -0,0 +1,42 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Label-to-commit pins bound to the current thread, answered by {@link GitRefreshScheduler#resolve} before
+ * the mirror's refs. Lets a caller load several environments by their label, at one commit per label, even
+ * if the label moves in between.
+ */
+public final class LabelPins {
+
+    private static final ThreadLocal<Map<String, String>> PINS = new ThreadLocal<>();
+
+    private LabelPins() {
+    }
+
+    /**
+     * Runs {@code action} with {@code pins}, keyed by label as requested ({@code null} for the default label).
+     */
+    public static <T> T with(Map<String, String> pins, Supplier<T> action) {
+        Map<String, String> previous = PINS.get();
+        PINS.set(pins);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                PINS.set(previous);
+            } else {
+                PINS.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the commit {@code label} is pinned to on this thread, or {@code null}
+     */
+    static String pinned(String label) {
+        Map<String, String> pins = PINS.get();
+        return pins != null ? pins.get(label) : null;
+    }
+}
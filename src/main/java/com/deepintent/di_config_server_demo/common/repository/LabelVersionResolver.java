@@ -0,0 +1,14 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+/**
+ * Resolves a git label (branch, tag or commit id) to the commit id it currently points at.
+ */
+@FunctionalInterface
+public interface LabelVersionResolver {
+
+    /**
+     * @param label the requested label, or {@code null} for the default label
+     * @return the commit id, or {@code null} when the label cannot be resolved
+     */
+    String resolve(String label);
+}
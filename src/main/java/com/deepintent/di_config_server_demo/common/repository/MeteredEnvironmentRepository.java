@@ -0,0 +1,62 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.ConfigRequest;
+import com.deepintent.di_config_server_demo.common.config.ConfigRequestTimings;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.core.Ordered;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Adds the time spent resolving environments to the {@link ConfigRequestTimings} of the current request,
+ * and records the commit that was served in its {@link ConfigRequest#VERSION_ATTRIBUTE}.
+ */
+public class MeteredEnvironmentRepository implements EnvironmentRepository, SearchPathLocator, Ordered {
+
+    private final EnvironmentRepository delegate;
+    private final SearchPathLocator locator;
+
+    public MeteredEnvironmentRepository(EnvironmentRepository delegate, SearchPathLocator locator) {
+        this.delegate = delegate;
+        this.locator = locator;
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne(application, profile, label, false);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        ConfigRequestTimings timings = ConfigRequestTimings.current();
+        if (timings == null) {
+            return recordVersion(delegate.findOne(application, profile, label, includeOrigin));
+        }
+        long start = System.nanoTime();
+        try {
+            return recordVersion(delegate.findOne(application, profile, label, includeOrigin));
+        } finally {
+            timings.addRepositoryNanos(System.nanoTime() - start);
+        }
+    }
+
+    private static Environment recordVersion(Environment environment) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && environment != null && environment.getVersion() != null) {
+            attributes.setAttribute(ConfigRequest.VERSION_ATTRIBUTE, environment.getVersion(), RequestAttributes.SCOPE_REQUEST);
+        }
+        return environment;
+    }
+
+    @Override
+    public Locations getLocations(String application, String profile, String label) {
+        return locator.getLocations(application, profile, label);
+    }
+
+    @Override
+    public int getOrder() {
+        return delegate instanceof Ordered ordered ? ordered.getOrder() : Ordered.LOWEST_PRECEDENCE;
+    }
+}
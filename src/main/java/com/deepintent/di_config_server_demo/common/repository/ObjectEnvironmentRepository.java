@@ -0,0 +1,124 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.lib.ObjectId;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NoSuchLabelException;
+import org.springframework.cloud.config.server.environment.SearchPathCompositeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Serves environments from commit-addressed {@link ConfigTreeSnapshot}s read straight from the git object
+ * database. Nothing is checked out or locked, so any number of labels can be served concurrently.
+ * <p>
+ * Property sources follow Spring Boot's precedence: profile-specific files before plain ones, later
+ * profiles before earlier ones, later search paths before earlier ones, the application's own name before
+ * {@code application}, and {@code .properties} before {@code .yml} before {@code .yaml}. Within a file,
+ * later documents win and documents are filtered by {@code spring.config.activate.on-profile}.
+ */
+@Slf4j
+public class ObjectEnvironmentRepository implements EnvironmentRepository, SearchPathLocator, Ordered {
+
+    private static final String[] EXTENSIONS = {".properties", ".yml", ".yaml"};
+
+    private final GitRefreshScheduler scheduler;
+    private final ConfigTreeSnapshots snapshots;
+    private final GitConfig gitConfig;
+    private final SearchPathCompositeEnvironmentRepository fallback;
+
+    public ObjectEnvironmentRepository(GitRefreshScheduler scheduler,
+                                       ConfigTreeSnapshots snapshots,
+                                       GitConfig gitConfig,
+                                       SearchPathCompositeEnvironmentRepository fallback) {
+        this.scheduler = scheduler;
+        this.snapshots = snapshots;
+        this.gitConfig = gitConfig;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne(application, profile, label, false);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        if (!scheduler.isReady()) {
+            log.debug("Git mirror not ready, serving {}/{}/{} from the composite repository", application, profile, label);
+            return fallback.findOne(application, profile, label, includeOrigin);
+        }
+
+        String version = scheduler.resolve(label);
+        if (version == null) {
+            throw new NoSuchLabelException("No such label: " + (StringUtils.hasText(label) ? label : gitConfig.getDefaultLabel()));
+        }
+        ConfigTreeSnapshot snapshot = snapshots.snapshot(version);
+
+        String[] profiles = StringUtils.trimArrayElements(StringUtils.commaDelimitedListToStringArray(profile));
+        if (profiles.length == 0) {
+            profiles = new String[] {"default"};
+        }
+        Set<String> activeProfiles = new LinkedHashSet<>(Arrays.asList(profiles));
+        List<String> names = "application".equals(application) ? List.of("application") : List.of("application", application);
+        List<String> locations = gitConfig.searchPrefixes(application);
+
+        Environment environment = new Environment(application, profiles, label, version, null);
+        for (int p = profiles.length - 1; p >= 0; p--) {
+            addFiles(environment, snapshot, locations, names, "-" + profiles[p], activeProfiles);
+        }
+        addFiles(environment, snapshot, locations, names, "", activeProfiles);
+        return environment;
+    }
+
+    @Override
+    public Locations getLocations(String application, String profile, String label) {
+        return fallback.getLocations(application, profile, label);
+    }
+
+    @Override
+    public int getOrder() {
+        return fallback instanceof Ordered ordered ? ordered.getOrder() : Ordered.LOWEST_PRECEDENCE;
+    }
+
+    private void addFiles(Environment environment, ConfigTreeSnapshot snapshot, List<String> locations,
+                          List<String> names, String suffix, Set<String> activeProfiles) {
+        for (int l = locations.size() - 1; l >= 0; l--) {
+            for (int n = names.size() - 1; n >= 0; n--) {
+                for (String extension : EXTENSIONS) {
+                    String path = locations.get(l) + names.get(n) + suffix + extension;
+                    SharedConfigFile shared = snapshot.sharedFile(path);
+                    if (shared != null) {
+                        addDocuments(environment, shared.file(), shared.sources(), activeProfiles);
+                        continue;
+                    }
+                    ObjectId blob = snapshot.blob(path);
+                    if (blob != null) {
+                        ParsedConfigFile file = snapshots.parsed(path, blob);
+                        addDocuments(environment, file, file.toPropertySources(snapshots.propertySourceName(path)), activeProfiles);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addDocuments(Environment environment, ParsedConfigFile file, List<PropertySource> sources,
+                              Set<String> activeProfiles) {
+        List<ParsedConfigFile.Document> documents = file.getDocuments();
+        for (int d = documents.size() - 1; d >= 0; d--) {
+            ParsedConfigFile.Document document = documents.get(d);
+            if (document.isActive(activeProfiles) && !document.properties().isEmpty()) {
+                environment.add(sources.get(d));
+            }
+        }
+    }
+}
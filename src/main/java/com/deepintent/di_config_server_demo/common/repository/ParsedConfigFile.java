@@ -0,0 +1,108 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.origin.OriginTrackedValue;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The documents of one config file blob, parsed with Spring Boot's own property source loaders.
+ * Instances are immutable and shared by every commit and path that contains the same blob.
+ */
+public final class ParsedConfigFile {
+
+    private static final PropertySourceLoader YAML_LOADER = new YamlPropertySourceLoader();
+    private static final PropertySourceLoader PROPERTIES_LOADER = new PropertiesPropertySourceLoader();
+
+    private final List<Document> documents;
+    private final int propertyCount;
+
+    private ParsedConfigFile(List<Document> documents) {
+        this.documents = List.copyOf(documents);
+        this.propertyCount = documents.stream().mapToInt(document -> document.properties().size()).sum();
+    }
+
+    /**
+     * @param onProfile the document's {@code spring.config.activate.on-profile} (or legacy {@code spring.profiles}),
+     *                  {@code null} when the document is always active
+     */
+    public record Document(String onProfile, Map<String, Object> properties) {
+
+        public boolean isActive(Set<String> activeProfiles) {
+            if (onProfile == null) {
+                return true;
+            }
+            String[] expressions = StringUtils.commaDelimitedListToStringArray(onProfile);
+            if (expressions.length == 0) {
+                return true;
+            }
+            return Profiles.of(StringUtils.trimArrayElements(expressions)).matches(activeProfiles::contains);
+        }
+    }
+
+    public static boolean isConfigFile(String path) {
+        return path.endsWith(".yml") || path.endsWith(".yaml") || path.endsWith(".properties");
+    }
+
+    public static boolean isPropertiesFile(String path) {
+        return path.endsWith(".properties");
+    }
+
+    public static ParsedConfigFile parse(String path, byte[] content) {
+        PropertySourceLoader loader = isPropertiesFile(path) ? PROPERTIES_LOADER : YAML_LOADER;
+        try {
+            List<Document> documents = new ArrayList<>();
+            for (org.springframework.core.env.PropertySource<?> source : loader.load(path, new ByteArrayResource(content))) {
+                if (!(source.getSource() instanceof Map<?, ?> raw)) {
+                    continue;
+                }
+                Map<String, Object> properties = new LinkedHashMap<>();
+                raw.forEach((key, value) -> properties.put(String.valueOf(key),
+                        value instanceof OriginTrackedValue tracked ? tracked.getValue() : value));
+                Object onProfile = properties.get("spring.config.activate.on-profile");
+                if (onProfile == null) {
+                    onProfile = properties.get("spring.profiles");
+                }
+                documents.add(new Document(onProfile != null ? onProfile.toString() : null,
+                        Collections.unmodifiableMap(properties)));
+            }
+            return new ParsedConfigFile(documents);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not parse " + path, e);
+        }
+    }
+
+    /**
+     * One property source per document, named like the config server names git sources:
+     * {@code <base name>} or {@code <base name> (document #n)} for multi-document files.
+     */
+    public List<PropertySource> toPropertySources(String baseName) {
+        List<PropertySource> sources = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            String name = documents.size() > 1 ? baseName + " (document #" + i + ")" : baseName;
+            sources.add(new PropertySource(name, documents.get(i).properties()));
+        }
+        return List.copyOf(sources);
+    }
+
+    public List<Document> getDocuments() {
+        return documents;
+    }
+
+    public int getPropertyCount() {
+        return propertyCount;
+    }
+}
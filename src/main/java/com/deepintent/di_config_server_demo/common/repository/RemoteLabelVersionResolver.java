@@ -0,0 +1,127 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resolves labels with a single {@code ls-remote} round trip that is shared by all callers
+ * for {@code deepintent.config-server.git.ref-ttl}. No fetch or checkout is involved.
+ * <p>
+ * The round trip runs on a background thread. Once the first listing is in, callers are served the last
+ * snapshot while an expired one is being replaced; only the very first resolution waits for the remote.
+ */
+@Slf4j
+public class RemoteLabelVersionResolver implements LabelVersionResolver {
+
+    private final GitConfig gitConfig;
+    private final ExecutorService refresher;
+    private final AtomicReference<CompletableFuture<RefSnapshot>> inFlight = new AtomicReference<>();
+    private volatile RefSnapshot snapshot = new RefSnapshot(Map.of(), 0L);
+
+    public RemoteLabelVersionResolver(GitConfig gitConfig) {
+        this.gitConfig = gitConfig;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("git-ls-remote-");
+        threadFactory.setDaemon(true);
+        this.refresher = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    @Override
+    public String resolve(String label) {
+        String effectiveLabel = StringUtils.hasText(label) ? label : gitConfig.getDefaultLabel();
+        if (!StringUtils.hasText(effectiveLabel)) {
+            return null;
+        }
+        if (ObjectId.isId(effectiveLabel)) {
+            return effectiveLabel;
+        }
+        if (!StringUtils.hasText(gitConfig.getUri())) {
+            return null;
+        }
+
+        RefSnapshot current = snapshot;
+        if (current.isExpired(gitConfig.getRefTtl().toMillis())) {
+            CompletableFuture<RefSnapshot> refresh = refresh();
+            if (current.fetchedAt() == 0L) {
+                current = refresh.join();
+            }
+        }
+        return current.lookup(effectiveLabel);
+    }
+
+    private CompletableFuture<RefSnapshot> refresh() {
+        CompletableFuture<RefSnapshot> pending = new CompletableFuture<>();
+        CompletableFuture<RefSnapshot> existing = inFlight.compareAndExchange(null, pending);
+        if (existing != null) {
+            return existing;
+        }
+        refresher.execute(() -> {
+            try {
+                pending.complete(listRefs(snapshot));
+            } finally {
+                inFlight.set(null);
+            }
+        });
+        return pending;
+    }
+
+    private RefSnapshot listRefs(RefSnapshot stale) {
+        long now = System.currentTimeMillis();
+        try {
+            Map<String, Ref> refs = Git.lsRemoteRepository()
+                    .setRemote(gitConfig.getUri())
+                    .setCredentialsProvider(gitConfig.credentialsProvider())
+                    .setHeads(true)
+                    .setTags(true)
+                    .callAsMap();
+
+            Map<String, String> versions = new HashMap<>();
+            refs.forEach((name, ref) -> {
+                ObjectId id = ref.getPeeledObjectId() != null ? ref.getPeeledObjectId() : ref.getObjectId();
+                if (id != null) {
+                    versions.put(name, id.name());
+                }
+            });
+            snapshot = new RefSnapshot(versions, now);
+        } catch (GitAPIException | RuntimeException e) {
+            log.warn("Could not list remote refs, keeping {} known refs: {}", stale.versions().size(), e.getMessage());
+            snapshot = new RefSnapshot(stale.versions(), now);
+        }
+        return snapshot;
+    }
+
+    private record RefSnapshot(Map<String, String> versions, long fetchedAt) {
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - fetchedAt >= ttlMillis;
+        }
+
+        String lookup(String label) {
+            String version = versions.get(Constants.R_HEADS + label);
+            if (version == null) {
+                version = versions.get(Constants.R_TAGS + label);
+            }
+            if (version == null) {
+                version = versions.get(label);
+            }
+            return version;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.springframework.cloud.config.environment.PropertySource;
+
+import java.util.List;
+
+/**
+ * A file of a shared layer (a search path without placeholders, such as {@code common}) with its property
+ * sources built once. The same instances are handed to every application's environment and carried over
+ * to later commits for as long as the file's blob does not change.
+ *
+ * @param sources one property source per document of {@code file}, in document order
+ */
+public record SharedConfigFile(ObjectId blob, ParsedConfigFile file, List<PropertySource> sources) {
+}
@@ -0,0 +1,98 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Puts Vault secrets in front of the git environment, using the config server's Vault key layout:
+ * {@code {application},{profile}}, {@code application,{profile}}, {@code {application}}, {@code application}
+ * with later profiles taking precedence. Secrets come from {@link VaultSecretCache} and are applied on top
+ * of the (possibly cached) git environment on every call, so they follow their own lease rather than the
+ * commit the git side is cached under.
+ */
+public class VaultOverlayEnvironmentRepository implements EnvironmentRepository, SearchPathLocator, Ordered {
+
+    private final EnvironmentRepository delegate;
+    private final SearchPathLocator locator;
+    private final VaultSecretCache secrets;
+    private final String defaultKey;
+    private final String profileSeparator;
+
+    public VaultOverlayEnvironmentRepository(EnvironmentRepository delegate,
+                                             SearchPathLocator locator,
+                                             VaultSecretCache secrets,
+                                             String defaultKey,
+                                             String profileSeparator) {
+        this.delegate = delegate;
+        this.locator = locator;
+        this.secrets = secrets;
+        this.defaultKey = defaultKey;
+        this.profileSeparator = profileSeparator;
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne(application, profile, label, false);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        Environment environment = delegate.findOne(application, profile, label, includeOrigin);
+        if (environment == null) {
+            return null;
+        }
+
+        List<String> keys = keys(application, profile);
+        Map<String, Map<String, Object>> data = secrets.getAll(keys);
+        Environment result = new Environment(environment);
+        for (String key : keys) {
+            Map<String, Object> secret = data.get(key);
+            if (!secret.isEmpty()) {
+                result.add(new PropertySource("vault:" + key, secret));
+            }
+        }
+        result.addAll(environment.getPropertySources());
+        return result;
+    }
+
+    @Override
+    public Locations getLocations(String application, String profile, String label) {
+        return locator.getLocations(application, profile, label);
+    }
+
+    @Override
+    public int getOrder() {
+        return delegate instanceof Ordered ordered ? ordered.getOrder() : Ordered.LOWEST_PRECEDENCE;
+    }
+
+    List<String> keys(String application, String profile) {
+        String[] applications = StringUtils.commaDelimitedListToStringArray(application);
+        String[] profiles = StringUtils.commaDelimitedListToStringArray(profile);
+        List<String> keys = new ArrayList<>();
+        for (int i = profiles.length - 1; i >= 0; i--) {
+            for (int j = applications.length - 1; j >= 0; j--) {
+                addKey(keys, applications[j] + profileSeparator + profiles[i]);
+            }
+            addKey(keys, defaultKey + profileSeparator + profiles[i]);
+        }
+        for (int j = applications.length - 1; j >= 0; j--) {
+            addKey(keys, applications[j]);
+        }
+        addKey(keys, defaultKey);
+        return keys;
+    }
+
+    private static void addKey(List<String> keys, String key) {
+        if (!keys.contains(key)) {
+            keys.add(key);
+        }
+    }
+}
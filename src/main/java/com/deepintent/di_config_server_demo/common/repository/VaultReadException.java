@@ -0,0 +1,11 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+/**
+ * Vault could not be read in time and there was no usable cached value.
+ */
+public class VaultReadException extends RuntimeException {
+
+    public VaultReadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The data stored at one Vault path, or {@link #missing()} if there is none. A zero lease duration means
+ * Vault did not say how long the data is valid for, as is the case for key/value secrets.
+ */
+public record VaultSecret(Map<String, Object> data, Duration leaseDuration) {
+
+    public static VaultSecret missing() {
+        return new VaultSecret(Map.of(), Duration.ZERO);
+    }
+}
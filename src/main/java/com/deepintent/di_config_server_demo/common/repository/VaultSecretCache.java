@@ -0,0 +1,239 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.ThreadingConfig;
+import com.deepintent.di_config_server_demo.common.config.VaultConfig;
+import com.deepintent.di_config_server_demo.common.service.BackendSaturatedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps Vault secrets per key for their lease duration (or the configured default TTL when Vault gives
+ * none) and re-reads them in the background before they expire, as long as they are still being asked for.
+ * <p>
+ * Reads run on a small bounded pool: concurrent requests for the same key share one read, and callers
+ * wait at most the read timeout. When a read fails or is too slow, an expired value is served for up to
+ * {@code max-stale} longer. {@link #getGeneration()} moves whenever a re-read returns different data, so
+ * anything derived from secrets can tell it is outdated without re-reading them; it also moves when an
+ * entry is dropped, since nothing keeps that secret current any more.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "deepintent.config-server.vault.enabled", havingValue = "true")
+public class VaultSecretCache {
+
+    private final VaultSecretSource source;
+    private final VaultConfig config;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ExecutorService readers;
+    private final ScheduledExecutorService sweeper;
+
+    public VaultSecretCache(VaultSecretSource source, VaultConfig config, ThreadingConfig threading) {
+        this(source, config, Clock.systemUTC(), threading.newBlockingExecutor("vault-read-", config.getReadConcurrency()));
+    }
+
+    VaultSecretCache(VaultSecretSource source, VaultConfig config, Clock clock, ExecutorService readers) {
+        this.source = source;
+        this.config = config;
+        this.clock = clock;
+        this.readers = readers;
+        CustomizableThreadFactory sweeperThreads = new CustomizableThreadFactory("vault-refresh-");
+        sweeperThreads.setDaemon(true);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(sweeperThreads);
+    }
+
+    @PostConstruct
+    public void start() {
+        long interval = config.getSweepInterval().toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+        readers.shutdownNow();
+    }
+
+    public Map<String, Object> get(String key) {
+        long now = clock.millis();
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return await(key, read(key)).secret().data();
+        }
+
+        entry.lastAccess = now;
+        if (now < entry.expiresAt) {
+            if (now >= entry.refreshAt) {
+                read(key);
+            }
+            return entry.secret().data();
+        }
+
+        try {
+            return await(key, read(key)).secret().data();
+        } catch (VaultReadException | BackendSaturatedException e) {
+            if (now < entry.expiresAt + config.getMaxStale().toMillis()) {
+                log.warn("Serving stale Vault secret '{}' ({}s past expiry): {}",
+                        key, (now - entry.expiresAt) / 1000, e.getMessage());
+                return entry.secret().data();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Like {@link #get(String)} for several keys, with all missing or expired keys read concurrently.
+     */
+    public Map<String, Map<String, Object>> getAll(List<String> keys) {
+        long now = clock.millis();
+        for (String key : keys) {
+            Entry entry = entries.get(key);
+            if (entry == null || now >= entry.refreshAt) {
+                read(key);
+            }
+        }
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            result.put(key, get(key));
+        }
+        return result;
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+        generation.incrementAndGet();
+    }
+
+    CompletableFuture<Entry> read(String key) {
+        CompletableFuture<Entry> pending = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            return existing;
+        }
+        // A read that completed since the caller looked has stored its entry before leaving inFlight
+        Entry current = entries.get(key);
+        if (current != null && clock.millis() < current.refreshAt) {
+            inFlight.remove(key, pending);
+            pending.complete(current);
+            return pending;
+        }
+        readers.execute(() -> {
+            try {
+                pending.complete(load(key));
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, pending);
+            }
+        });
+        return pending;
+    }
+
+    private Entry load(String key) {
+        VaultSecret secret = source.read(key);
+        long now = clock.millis();
+        Duration ttl = secret.leaseDuration().isZero() ? config.getDefaultTtl() : secret.leaseDuration();
+        Entry loaded = new Entry(secret, now + (long) (ttl.toMillis() * config.getRefreshAhead()), now + ttl.toMillis(), now);
+
+        Entry previous = entries.put(key, loaded);
+        if (previous != null) {
+            loaded.lastAccess = previous.lastAccess;
+            if (!previous.secret().data().equals(secret.data())) {
+                log.info("Vault secret '{}' changed", key);
+                generation.incrementAndGet();
+            }
+        }
+        return loaded;
+    }
+
+    private Entry await(String key, CompletableFuture<Entry> read) {
+        try {
+            return read.get(config.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new VaultReadException("Vault did not answer for '" + key + "' within " + config.getReadTimeout(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BackendSaturatedException saturated) {
+                throw saturated;
+            }
+            throw new VaultReadException("Could not read '" + key + "' from Vault: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VaultReadException("Interrupted reading '" + key + "' from Vault", e);
+        }
+    }
+
+    /**
+     * Refreshes entries that are due and still in use, and drops the ones nobody asked for lately.
+     *
+     * @return completes once the refreshes started by this sweep are done, whether they succeeded or not
+     */
+    CompletableFuture<Void> sweep() {
+        long now = clock.millis();
+        long idleTimeout = config.getIdleTimeout().toMillis();
+        long maxStale = config.getMaxStale().toMillis();
+        List<CompletableFuture<Entry>> refreshes = new ArrayList<>();
+        entries.forEach((key, entry) -> {
+            if (now - entry.lastAccess > idleTimeout || now >= entry.expiresAt + maxStale) {
+                // Responses rendered from this entry can no longer be vouched for once it stops being refreshed
+                if (entries.remove(key, entry)) {
+                    generation.incrementAndGet();
+                }
+            } else if (now >= entry.refreshAt) {
+                refreshes.add(read(key).exceptionally(e -> {
+                    log.warn("Background refresh of Vault secret '{}' failed: {}", key, e.getMessage());
+                    return null;
+                }));
+            }
+        });
+        return CompletableFuture.allOf(refreshes.toArray(CompletableFuture[]::new));
+    }
+
+    static final class Entry {
+
+        private final VaultSecret secret;
+        private final long refreshAt;
+        private final long expiresAt;
+        private volatile long lastAccess;
+
+        Entry(VaultSecret secret, long refreshAt, long expiresAt, long lastAccess) {
+            this.secret = secret;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+
+        VaultSecret secret() {
+            return secret;
+        }
+    }
+}
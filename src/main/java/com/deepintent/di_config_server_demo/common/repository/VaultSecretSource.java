@@ -0,0 +1,13 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+/**
+ * Reads secrets from Vault; {@link VaultSecretCache} keeps them.
+ */
+@FunctionalInterface
+public interface VaultSecretSource {
+
+    /**
+     * @param key the secret's key below the configured backend, e.g. {@code my-app,prod}
+     */
+    VaultSecret read(String key);
+}
@@ -0,0 +1,37 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import org.springframework.vault.core.VaultOperations;
+import org.springframework.vault.support.VaultResponse;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Reads key/value secrets through spring-vault, unwrapping the version 2 envelope.
+ */
+public class VaultTemplateSecretSource implements VaultSecretSource {
+
+    private final VaultOperations operations;
+    private final String backend;
+    private final int kvVersion;
+
+    public VaultTemplateSecretSource(VaultOperations operations, String backend, int kvVersion) {
+        this.operations = operations;
+        this.backend = backend;
+        this.kvVersion = kvVersion;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public VaultSecret read(String key) {
+        VaultResponse response = operations.read(kvVersion == 2 ? backend + "/data/" + key : backend + "/" + key);
+        if (response == null || response.getData() == null) {
+            return VaultSecret.missing();
+        }
+        Map<String, Object> data = response.getData();
+        if (kvVersion == 2 && data.get("data") instanceof Map<?, ?> nested) {
+            data = (Map<String, Object>) nested;
+        }
+        return new VaultSecret(data, Duration.ofSeconds(response.getLeaseDuration()));
+    }
+}
@@ -0,0 +1,137 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import com.deepintent.di_config_server_demo.common.config.GitRefreshConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentProperties;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NoSuchLabelException;
+import org.springframework.cloud.config.server.environment.SearchPathCompositeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Serves environments from the per-commit worktrees of {@link CommitWorktrees}, resolving labels against the
+ * {@link GitRefreshScheduler} mirror, with one native repository per worktree. Until the mirror is ready,
+ * requests fall through to the composite repository.
+ */
+@Slf4j
+public class WorktreeEnvironmentRepository implements EnvironmentRepository, SearchPathLocator, Ordered {
+
+    private final GitRefreshScheduler scheduler;
+    private final CommitWorktrees worktrees;
+    private final GitConfig gitConfig;
+    private final ConfigurableEnvironment environment;
+    private final ObservationRegistry observationRegistry;
+    private final SearchPathCompositeEnvironmentRepository fallback;
+    private final Cache<Path, NativeEnvironmentRepository> delegates;
+
+    public WorktreeEnvironmentRepository(GitRefreshScheduler scheduler,
+                                         CommitWorktrees worktrees,
+                                         GitConfig gitConfig,
+                                         GitRefreshConfig refreshConfig,
+                                         ConfigurableEnvironment environment,
+                                         ObservationRegistry observationRegistry,
+                                         SearchPathCompositeEnvironmentRepository fallback) {
+        this.scheduler = scheduler;
+        this.worktrees = worktrees;
+        this.gitConfig = gitConfig;
+        this.environment = environment;
+        this.observationRegistry = observationRegistry;
+        this.fallback = fallback;
+        this.delegates = Caffeine.newBuilder()
+                .maximumSize(refreshConfig.getMaxWorktrees())
+                .build();
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne(application, profile, label, false);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        if (!scheduler.isReady()) {
+            log.debug("Git mirror not ready, serving {}/{}/{} from the composite repository", application, profile, label);
+            return fallback.findOne(application, profile, label, includeOrigin);
+        }
+
+        String version = scheduler.resolve(label);
+        if (version == null) {
+            throw new NoSuchLabelException("No such label: " + (StringUtils.hasText(label) ? label : gitConfig.getDefaultLabel()));
+        }
+        Path worktree = worktrees.checkout(version);
+
+        // The native repository still loads every environment in a throw-away application context, which is
+        // why this repository sits behind the environment cache and is only reached on cache misses
+        Environment result = delegates.get(worktree, this::nativeRepository).findOne(application, profile, "", includeOrigin);
+        result.setVersion(version);
+        result.setLabel(label);
+        return rename(result, worktree);
+    }
+
+    private NativeEnvironmentRepository nativeRepository(Path worktree) {
+        NativeEnvironmentProperties properties = new NativeEnvironmentProperties();
+        properties.setSearchLocations(searchLocations(worktree));
+        properties.setAddLabelLocations(false);
+        return new NativeEnvironmentRepository(environment, properties, observationRegistry);
+    }
+
+    @Override
+    public Locations getLocations(String application, String profile, String label) {
+        return fallback.getLocations(application, profile, label);
+    }
+
+    @Override
+    public int getOrder() {
+        return fallback instanceof Ordered ordered ? ordered.getOrder() : Ordered.LOWEST_PRECEDENCE;
+    }
+
+    private String[] searchLocations(Path worktree) {
+        String base = "file:" + worktree.toAbsolutePath() + "/";
+        List<String> searchPaths = gitConfig.getSearchPaths();
+        if (searchPaths.isEmpty()) {
+            return new String[] {base};
+        }
+        return searchPaths.stream()
+                .map(searchPath -> base + StringUtils.trimLeadingCharacter(searchPath, '/') + "/")
+                .toArray(String[]::new);
+    }
+
+    private Environment rename(Environment environment, Path worktree) {
+        String directory = worktree.toAbsolutePath().toString();
+        String uri = StringUtils.trimTrailingCharacter(gitConfig.getUri(), '/');
+        Environment renamed = new Environment(environment);
+        for (PropertySource source : environment.getPropertySources()) {
+            String name = source.getName();
+            int index = name.indexOf(directory);
+            if (index >= 0) {
+                String path = name.substring(index + directory.length());
+                int end = indexOfAny(path, "]' ");
+                name = uri + (end >= 0 ? path.substring(0, end) : path);
+            }
+            renamed.add(new PropertySource(name, source.getSource()));
+        }
+        return renamed;
+    }
+
+    private static int indexOfAny(String value, String characters) {
+        for (int i = 0; i < value.length(); i++) {
+            if (characters.indexOf(value.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,204 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.AuditLogConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only audit trail of environment requests, one compact record per request, written through
+ * memory-mapped {@link AuditLogSegment segment files}.
+ * <p>
+ * {@link #append} neither locks nor allocates: it reserves space in the current segment and writes the
+ * record in place. Only the writer that finds the segment full takes the lock to map the next one. A single
+ * background thread forces written records to disk every {@code flush-interval}, so a crash loses at most
+ * that much. The oldest segments beyond {@code max-segments} are deleted, including those of earlier runs.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(
+    name = "deepintent.config-server.audit-log.enabled",
+    havingValue = "true",
+    matchIfMissing = true
+)
+public class AuditLog {
+
+    private static final String FILE_PREFIX = "audit-";
+    private static final String FILE_SUFFIX = ".seg";
+
+    private final AuditLogConfig config;
+    private final Path directory;
+    private final int segmentSize;
+    private final Deque<AuditLogSegment> segments = new ConcurrentLinkedDeque<>();
+    private final ScheduledExecutorService flusher;
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile AuditLogSegment current;
+    private long nextSequence;
+
+    public AuditLog(AuditLogConfig config) {
+        this.config = config;
+        this.directory = Path.of(config.getDirectory());
+        this.segmentSize = (int) Math.max(AuditLogSegment.MIN_CAPACITY,
+                Math.min(Integer.MAX_VALUE, config.getSegmentSize().toBytes()));
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("audit-flush-");
+        threadFactory.setDaemon(true);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        try {
+            Files.createDirectories(directory);
+            for (Path path : existingSegments()) {
+                long sequence = sequenceOf(path);
+                try {
+                    segments.addLast(AuditLogSegment.open(path));
+                } catch (IOException e) {
+                    log.warn("Skipping audit log segment {}: {}", path, e.getMessage());
+                }
+                nextSequence = Math.max(nextSequence, sequence + 1);
+            }
+            current = newSegment();
+        } catch (IOException e) {
+            log.error("Audit log disabled, could not open {}: {}", directory, e.getMessage());
+            return;
+        }
+        long interval = config.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Writing audit log to {} ({} byte segments, keeping {})", directory, segmentSize, config.getMaxSegments());
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdownNow();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    public void append(long epochMillis, String application, String profiles, String label, String commit,
+                       int status, long latencyMicros, long bytes, String client) {
+        AuditLogSegment segment = current;
+        while (segment != null) {
+            if (segment.append(epochMillis, status, latencyMicros, bytes, application, profiles, label, commit, client)) {
+                appended.incrementAndGet();
+                return;
+            }
+            segment = rotate(segment);
+        }
+        dropped.incrementAndGet();
+    }
+
+    /**
+     * The most recent records, newest first, optionally only those of one application.
+     */
+    public List<AuditRecord> recent(int limit, String application) {
+        Predicate<AuditRecord> filter = application != null
+                ? record -> application.equals(record.application())
+                : record -> true;
+        List<AuditRecord> recent = new ArrayList<>(limit);
+        Iterator<AuditLogSegment> newestFirst = segments.descendingIterator();
+        while (recent.size() < limit && newestFirst.hasNext()) {
+            List<AuditRecord> records = new ArrayList<>();
+            newestFirst.next().read(record -> {
+                if (filter.test(record)) {
+                    records.add(record);
+                }
+            });
+            Collections.reverse(records);
+            recent.addAll(records.subList(0, Math.min(records.size(), limit - recent.size())));
+        }
+        return recent;
+    }
+
+    public long getAppendedCount() {
+        return appended.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    void flush() {
+        for (AuditLogSegment segment : segments) {
+            try {
+                segment.force();
+            } catch (UncheckedIOException e) {
+                log.warn("Could not flush audit log segment {}: {}", segment.getPath(), e.getMessage());
+            }
+        }
+    }
+
+    private synchronized AuditLogSegment rotate(AuditLogSegment full) {
+        if (current != full) {
+            return current;
+        }
+        try {
+            current = newSegment();
+        } catch (IOException e) {
+            log.error("Audit log disabled, could not create the next segment in {}: {}", directory, e.getMessage());
+            current = null;
+        }
+        return current;
+    }
+
+    private AuditLogSegment newSegment() throws IOException {
+        long sequence = nextSequence++;
+        AuditLogSegment segment = AuditLogSegment.create(
+                directory.resolve(String.format("%s%016d%s", FILE_PREFIX, sequence, FILE_SUFFIX)), segmentSize);
+        segments.addLast(segment);
+        while (segments.size() > Math.max(1, config.getMaxSegments())) {
+            AuditLogSegment oldest = segments.pollFirst();
+            oldest.force();
+            Files.deleteIfExists(oldest.getPath());
+            log.debug("Deleted audit log segment {}", oldest.getPath());
+        }
+        return segment;
+    }
+
+    private List<Path> existingSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().matches(FILE_PREFIX + "\\d+\\" + FILE_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,233 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One memory-mapped file of the {@link AuditLog}, sized up front.
+ * <p>
+ * Writers reserve space with a single {@code getAndAdd} on {@code next}, fill their slot with absolute puts
+ * and publish it by storing the record length last, with release semantics. A reader that loads the length
+ * with acquire semantics therefore sees a complete record, and stops at the first slot that is still zero.
+ * <p>
+ * Layout, little endian: an 8 byte header ({@code MAGIC}, {@code VERSION}), then records of
+ * {@code int length, short status, short reserved, long epochMillis, long latencyMicros, long bytes} followed
+ * by application, profiles, label, commit and client as {@code unsigned short} byte count plus UTF-8,
+ * padded to 8 bytes. A length of -1 marks the end of a full segment.
+ */
+final class AuditLogSegment {
+
+    static final int HEADER_SIZE = 8;
+    static final int MIN_CAPACITY = 64 * 1024;
+
+    private static final int MAGIC = 0x31445541; // "AUD1"
+    private static final int VERSION = 1;
+    private static final int FIXED_SIZE = 32;
+    private static final int MAX_FIELD_CHARS = 256;
+    private static final int NULL_FIELD = 0xFFFF;
+    private static final int END_OF_SEGMENT = -1;
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicLong next;
+    private long forced;
+
+    private AuditLogSegment(Path path, MappedByteBuffer buffer, long next) {
+        this.path = path;
+        this.buffer = buffer;
+        this.capacity = buffer.capacity();
+        this.next = new AtomicLong(next);
+        this.forced = next;
+    }
+
+    static AuditLogSegment create(Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            return new AuditLogSegment(path, buffer, HEADER_SIZE);
+        }
+    }
+
+    /**
+     * Maps a segment left by an earlier run, read-only.
+     */
+    static AuditLogSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(path + " is not an audit log segment");
+            }
+            return new AuditLogSegment(path, buffer, buffer.capacity());
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return {@code false} if the record does not fit, i.e. the segment is full
+     */
+    boolean append(long epochMillis, int status, long latencyMicros, long bytes, String application,
+                   String profiles, String label, String commit, String client) {
+        int size = align(FIXED_SIZE + fieldSize(application) + fieldSize(profiles) + fieldSize(label)
+                + fieldSize(commit) + fieldSize(client));
+        long offset = next.getAndAdd(size);
+        if (offset + size > capacity) {
+            // Only the first writer past the end lands inside the segment
+            if (offset + Integer.BYTES <= capacity) {
+                INT.setRelease(buffer, (int) offset, END_OF_SEGMENT);
+            }
+            return false;
+        }
+
+        int position = (int) offset;
+        buffer.putShort(position + 4, (short) status);
+        buffer.putLong(position + 8, epochMillis);
+        buffer.putLong(position + 16, latencyMicros);
+        buffer.putLong(position + 24, bytes);
+        int field = position + FIXED_SIZE;
+        field = putField(field, application);
+        field = putField(field, profiles);
+        field = putField(field, label);
+        field = putField(field, commit);
+        putField(field, client);
+        INT.setRelease(buffer, position, size);
+        return true;
+    }
+
+    /**
+     * Passes every published record to {@code consumer}, oldest first.
+     */
+    void read(Consumer<AuditRecord> consumer) {
+        int position = HEADER_SIZE;
+        while (position + FIXED_SIZE <= capacity) {
+            int size = (int) INT.getAcquire(buffer, position);
+            if (size <= 0) {
+                return;
+            }
+            int[] field = {position + FIXED_SIZE};
+            consumer.accept(new AuditRecord(
+                    Instant.ofEpochMilli(buffer.getLong(position + 8)),
+                    readField(field), readField(field), readField(field), readField(field),
+                    buffer.getShort(position + 4) & 0xFFFF,
+                    buffer.getLong(position + 16),
+                    buffer.getLong(position + 24),
+                    readField(field)));
+            position += size;
+        }
+    }
+
+    /**
+     * Writes the records appended since the last call to disk. Not on the append path.
+     */
+    synchronized void force() {
+        long end = Math.min(next.get(), capacity);
+        if (end > forced) {
+            buffer.force((int) forced, (int) (end - forced));
+            forced = end;
+        }
+    }
+
+    private int putField(int position, String value) {
+        if (value == null) {
+            buffer.putShort(position, (short) NULL_FIELD);
+            return position + 2;
+        }
+        int chars = fieldChars(value);
+        int index = position + 2;
+        for (int i = 0; i < chars; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put(index++, (byte) c);
+            } else if (c < 0x800) {
+                buffer.put(index++, (byte) (0xC0 | (c >> 6)));
+                buffer.put(index++, (byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put(index++, (byte) (0xF0 | (codePoint >> 18)));
+                buffer.put(index++, (byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put(index++, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put(index++, (byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put(index++, (byte) '?');
+            } else {
+                buffer.put(index++, (byte) (0xE0 | (c >> 12)));
+                buffer.put(index++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put(index++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buffer.putShort(position, (short) (index - position - 2));
+        return index;
+    }
+
+    private String readField(int[] position) {
+        int length = buffer.getShort(position[0]) & 0xFFFF;
+        position[0] += 2;
+        if (length == NULL_FIELD) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position[0], bytes);
+        position[0] += length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Bytes {@link #putField} writes for {@code value}, computed without encoding it.
+     */
+    private static int fieldSize(String value) {
+        if (value == null) {
+            return 2;
+        }
+        int chars = fieldChars(value);
+        int size = 2;
+        for (int i = 0; i < chars; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                size += 1;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(value.charAt(i + 1))) {
+                size += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                size += 1;
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Long values are cut to {@code MAX_FIELD_CHARS}, never between the two halves of a surrogate pair.
+     */
+    private static int fieldChars(String value) {
+        int chars = Math.min(value.length(), MAX_FIELD_CHARS);
+        if (chars < value.length() && Character.isHighSurrogate(value.charAt(chars - 1))) {
+            chars--;
+        }
+        return chars;
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+}
@@ -0,0 +1,10 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import java.time.Instant;
+
+/**
+ * One environment request as read back from the {@link AuditLog}.
+ */
+public record AuditRecord(Instant timestamp, String application, String profiles, String label, String commit,
+                          int status, long latencyMicros, long bytes, String client) {
+}
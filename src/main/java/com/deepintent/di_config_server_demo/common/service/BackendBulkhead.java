@@ -0,0 +1,73 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps the calls in flight to one backend. A call that cannot get a permit within {@code maxWait} fails
+ * with {@link BackendSaturatedException} instead of queueing behind a slow backend.
+ */
+@Slf4j
+public class BackendBulkhead {
+
+    private final String backend;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+    private final Semaphore permits;
+    private final Counter rejected;
+
+    public BackendBulkhead(String backend, int maxConcurrent, Duration maxWait, Duration retryAfter,
+                           MeterRegistry registry) {
+        this.backend = backend;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+        this.permits = new Semaphore(maxConcurrent);
+        Gauge.builder("config.bulkhead.active", this, BackendBulkhead::getActive)
+                .tag("backend", backend)
+                .register(registry);
+        this.rejected = Counter.builder("config.bulkhead.rejected")
+                .tag("backend", backend)
+                .register(registry);
+    }
+
+    public <T> T call(Supplier<T> call) {
+        acquire();
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    private void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            log.warn("Rejecting {} call: {} calls already in flight", backend, maxConcurrent);
+            throw new BackendSaturatedException(backend, maxConcurrent, retryAfter);
+        }
+    }
+}
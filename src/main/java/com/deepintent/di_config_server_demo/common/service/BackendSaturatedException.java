@@ -0,0 +1,28 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * A backend already has as many calls in flight as its bulkhead allows. Answered with
+ * {@code 503 Service Unavailable} and a {@code Retry-After} header.
+ */
+public class BackendSaturatedException extends ResponseStatusException {
+
+    private final Duration retryAfter;
+
+    public BackendSaturatedException(String backend, int limit, Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, backend + " is at its limit of " + limit + " concurrent calls");
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfter.toSeconds())));
+        return headers;
+    }
+}
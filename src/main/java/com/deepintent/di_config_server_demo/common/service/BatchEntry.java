@@ -0,0 +1,7 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+/**
+ * One environment requested through {@code POST /batch}. A missing label means the default label.
+ */
+public record BatchEntry(String application, String profiles, String label) {
+}
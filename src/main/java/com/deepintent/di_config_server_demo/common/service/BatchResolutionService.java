@@ -0,0 +1,145 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.BatchConfig;
+import com.deepintent.di_config_server_demo.common.config.ThreadingConfig;
+import com.deepintent.di_config_server_demo.common.repository.GitRefreshScheduler;
+import com.deepintent.di_config_server_demo.common.repository.LabelPins;
+import com.deepintent.di_config_server_demo.common.repository.LabelVersionResolver;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.NoSuchLabelException;
+import org.springframework.cloud.config.server.environment.NoSuchRepositoryException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Resolves a batch of environments in parallel. Every label in the batch is pinned to its current commit
+ * before anything is loaded, so all entries of one label see the same snapshot even if the label moves
+ * while the batch is running. Entries are still resolved by their label, so they share cache entries with
+ * plain requests. Pins are only honoured by the background git refresh; without it each entry is loaded on
+ * its own, reports the commit it was served at and is marked as not pinned, so clients cannot mistake the
+ * batch for a consistent snapshot. Results are handed over in completion order, each with its own status.
+ */
+@Slf4j
+@Service
+public class BatchResolutionService {
+
+    private final ConfigResolutionService resolutionService;
+    private final LabelVersionResolver versionResolver;
+    private final BatchConfig config;
+    private final ExecutorService executor;
+    private final boolean pinning;
+
+    public BatchResolutionService(ConfigResolutionService resolutionService,
+                                  LabelVersionResolver versionResolver,
+                                  BatchConfig config,
+                                  ThreadingConfig threading,
+                                  ObjectProvider<GitRefreshScheduler> refreshScheduler) {
+        this(resolutionService, versionResolver, config, threading, refreshScheduler.getIfAvailable() != null);
+    }
+
+    BatchResolutionService(ConfigResolutionService resolutionService,
+                           LabelVersionResolver versionResolver,
+                           BatchConfig config,
+                           ThreadingConfig threading,
+                           boolean pinning) {
+        this.resolutionService = resolutionService;
+        this.versionResolver = versionResolver;
+        this.config = config;
+        this.executor = threading.newBlockingExecutor("config-batch-", config.getParallelism());
+        this.pinning = pinning;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Resolves {@code entries} and passes each result to {@code consumer} on the calling thread as soon as
+     * it is available. Entries still running when the batch timeout expires are reported as timed out.
+     */
+    public void resolve(List<BatchEntry> entries, Consumer<BatchResult> consumer) throws InterruptedException {
+        Map<String, String> versions = pinning ? pinLabels(entries) : Collections.emptyMap();
+        BlockingQueue<BatchResult> completed = new LinkedBlockingQueue<>();
+        List<Future<?>> futures = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            int index = i;
+            BatchEntry entry = entries.get(i);
+            futures.add(executor.submit(() -> completed.add(resolve(index, entry, versions))));
+        }
+
+        long deadline = System.nanoTime() + config.getTimeout().toNanos();
+        boolean[] reported = new boolean[entries.size()];
+        try {
+            for (int remaining = entries.size(); remaining > 0; remaining--) {
+                BatchResult result = completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (result == null) {
+                    break;
+                }
+                reported[result.index()] = true;
+                consumer.accept(result);
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            if (!reported[i]) {
+                BatchEntry entry = entries.get(i);
+                consumer.accept(new BatchResult(i, entry.application(), entry.profiles(), entry.label(),
+                        versions.get(entry.label()), pinning, HttpStatus.GATEWAY_TIMEOUT.value(), null,
+                        "Not resolved within " + config.getTimeout()));
+            }
+        }
+    }
+
+    private Map<String, String> pinLabels(List<BatchEntry> entries) {
+        Map<String, String> versions = new HashMap<>();
+        for (BatchEntry entry : entries) {
+            if (!versions.containsKey(entry.label())) {
+                versions.put(entry.label(), versionResolver.resolve(entry.label()));
+            }
+        }
+        log.debug("Resolving batch of {} entries at {}", entries.size(), versions);
+        return versions;
+    }
+
+    private BatchResult resolve(int index, BatchEntry entry, Map<String, String> versions) {
+        String version = versions.get(entry.label());
+        try {
+            Environment environment = LabelPins.with(versions,
+                    () -> resolutionService.resolve(entry.application(), entry.profiles(), entry.label()));
+            return new BatchResult(index, entry.application(), entry.profiles(), entry.label(),
+                    environment.getVersion(), pinning, HttpStatus.OK.value(), environment, null);
+        } catch (NoSuchLabelException | NoSuchRepositoryException e) {
+            return failed(index, entry, version, HttpStatus.NOT_FOUND, e);
+        } catch (ResponseStatusException e) {
+            return new BatchResult(index, entry.application(), entry.profiles(), entry.label(), version, pinning,
+                    e.getStatusCode().value(), null, e.getReason());
+        } catch (RuntimeException e) {
+            log.warn("Batch entry {}/{}/{} failed: {}", entry.application(), entry.profiles(), entry.label(), e.getMessage());
+            return failed(index, entry, version, HttpStatus.INTERNAL_SERVER_ERROR, e);
+        }
+    }
+
+    private BatchResult failed(int index, BatchEntry entry, String version, HttpStatus status, Exception e) {
+        return new BatchResult(index, entry.application(), entry.profiles(), entry.label(), version, pinning,
+                status.value(), null, e.getMessage());
+    }
+}
@@ -0,0 +1,21 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.cloud.config.environment.Environment;
+
+/**
+ * Outcome of one {@link BatchEntry}, identified by its position in the request. Exactly one of
+ * {@code environment} and {@code error} is set. {@code pinned} tells whether {@code version} is the commit
+ * the whole batch was resolved at for this label, or only the one this entry happened to be served at.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchResult(int index,
+                          String application,
+                          String profiles,
+                          String label,
+                          String version,
+                          boolean pinned,
+                          int status,
+                          Environment environment,
+                          String error) {
+}
@@ -0,0 +1,43 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admits the first {@code limit} distinct values of a metric tag and reports every later one as
+ * {@code other}, so client-supplied names cannot grow the registry without bound.
+ */
+public class BoundedTagValues {
+
+    public static final String NONE = "none";
+    public static final String OTHER = "other";
+    public static final String COMMIT = "commit";
+
+    private final int limit;
+    private final Set<String> admitted = ConcurrentHashMap.newKeySet();
+
+    public BoundedTagValues(int limit) {
+        this.limit = limit;
+    }
+
+    public String of(String value) {
+        if (value == null || value.isEmpty()) {
+            return NONE;
+        }
+        if (ObjectId.isId(value)) {
+            return COMMIT;
+        }
+        if (admitted.contains(value)) {
+            return value;
+        }
+        synchronized (admitted) {
+            if (admitted.size() < limit) {
+                admitted.add(value);
+                return value;
+            }
+        }
+        return admitted.contains(value) ? value : OTHER;
+    }
+}
@@ -0,0 +1,54 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.BulkheadConfig;
+import com.deepintent.di_config_server_demo.common.config.GitRefreshConfig;
+import com.deepintent.di_config_server_demo.common.config.ThreadingConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@link BackendBulkhead}s of the git and Vault backends.
+ * <p>
+ * Without the background git refresh every git load goes through {@code JGitEnvironmentRepository}, whose
+ * {@code findOne} and {@code getLocations} are {@code synchronized}. Before JDK 24 a virtual thread holding
+ * or waiting for a monitor pins its carrier, so with virtual threads the git bulkhead then admits at most
+ * one call less than there are carriers: later calls wait on the bulkhead, unmounted, and get a 503 instead
+ * of pinning every carrier and stalling requests that never reach git.
+ */
+@Slf4j
+@Component
+public class Bulkheads {
+
+    private final BackendBulkhead git;
+    private final BackendBulkhead vault;
+
+    public Bulkheads(BulkheadConfig config, GitRefreshConfig refreshConfig, ThreadingConfig threading,
+                     ConfigServerMetrics metrics) {
+        boolean pinning = threading.isVirtualThreads() && !refreshConfig.isEnabled() && Runtime.version().feature() < 24;
+        int gitMaxConcurrent = gitMaxConcurrent(config.getGitMaxConcurrent(), pinning, carrierParallelism());
+        if (gitMaxConcurrent < config.getGitMaxConcurrent()) {
+            log.info("Capping concurrent git calls at {} so that JGit's monitors cannot pin every carrier thread",
+                    gitMaxConcurrent);
+        }
+        this.git = new BackendBulkhead("git", gitMaxConcurrent, config.getGitMaxWait(),
+                config.getRetryAfter(), metrics.getRegistry());
+        this.vault = new BackendBulkhead("vault", config.getVaultMaxConcurrent(), config.getVaultMaxWait(),
+                config.getRetryAfter(), metrics.getRegistry());
+    }
+
+    public BackendBulkhead git() {
+        return git;
+    }
+
+    public BackendBulkhead vault() {
+        return vault;
+    }
+
+    static int gitMaxConcurrent(int configured, boolean pinning, int carriers) {
+        return pinning ? Math.min(configured, Math.max(1, carriers - 1)) : configured;
+    }
+
+    private static int carrierParallelism() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,58 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import org.springframework.cloud.config.server.encryption.TextEncryptorLocator;
+import org.springframework.security.crypto.encrypt.TextEncryptor;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Hands out encryptors whose {@code decrypt} goes through {@link DecryptedValueCache}. The key id is built
+ * from the {@code key} and {@code secret} prefixes of the value, which are what select the key in the config
+ * server's locators; the application and profiles do not, so shared ciphertexts are decrypted once.
+ */
+public class CachingTextEncryptorLocator implements TextEncryptorLocator {
+
+    private final TextEncryptorLocator delegate;
+    private final DecryptedValueCache cache;
+
+    public CachingTextEncryptorLocator(TextEncryptorLocator delegate, DecryptedValueCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public TextEncryptor locate(Map<String, String> keys) {
+        TextEncryptor encryptor = delegate.locate(keys);
+        return new CachingTextEncryptor(encryptor, keyId(keys));
+    }
+
+    private static String keyId(Map<String, String> keys) {
+        String key = keys.getOrDefault("key", "");
+        String secret = keys.get("secret");
+        // The secret itself is not kept, only enough to tell keystore passwords apart
+        return secret != null ? key + ':' + DigestUtils.md5DigestAsHex(secret.getBytes(StandardCharsets.UTF_8)) : key;
+    }
+
+    private class CachingTextEncryptor implements TextEncryptor {
+
+        private final TextEncryptor delegate;
+        private final String keyId;
+
+        CachingTextEncryptor(TextEncryptor delegate, String keyId) {
+            this.delegate = delegate;
+            this.keyId = keyId;
+        }
+
+        @Override
+        public String encrypt(String text) {
+            return delegate.encrypt(text);
+        }
+
+        @Override
+        public String decrypt(String encryptedText) {
+            return cache.decrypt(keyId, encryptedText, delegate::decrypt);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.repository.ConfigTreeSnapshots;
+import com.deepintent.di_config_server_demo.common.repository.VaultSecretCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes size, hit and eviction meters ({@code cache.*}, tagged by {@code cache}) for the server's
+ * in-memory caches. The environment cache is bound where it is created, in
+ * {@code EnvironmentRepositoryPostProcessor}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConfigCacheMetrics implements MeterBinder {
+
+    private final ObjectProvider<RenderedResponseCache> renderedResponses;
+    private final ObjectProvider<DecryptedValueCache> decryptedValues;
+    private final ObjectProvider<EnvironmentDeltaService> deltaService;
+    private final ObjectProvider<ConfigTreeSnapshots> snapshots;
+    private final ObjectProvider<VaultSecretCache> vaultSecrets;
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        renderedResponses.ifAvailable(cache -> CaffeineCacheMetrics.monitor(registry, cache.getCache(), "rendered-responses"));
+        decryptedValues.ifAvailable(cache -> CaffeineCacheMetrics.monitor(registry, cache.getCache(), "decrypted-values"));
+        deltaService.ifAvailable(service -> CaffeineCacheMetrics.monitor(registry, service.getSnapshots(), "delta-snapshots"));
+        snapshots.ifAvailable(trees -> {
+            CaffeineCacheMetrics.monitor(registry, trees.getSnapshots(), "commit-snapshots");
+            CaffeineCacheMetrics.monitor(registry, trees.getParsedFiles(), "parsed-blobs");
+        });
+        vaultSecrets.ifAvailable(cache -> Gauge.builder("config.vault.cache.size", cache, VaultSecretCache::size)
+                .description("Vault keys held in the secret cache")
+                .register(registry));
+    }
+}
@@ -0,0 +1,4 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+public record ConfigChange(String application, String profiles, String label, String previousVersion, String version) {
+}
@@ -0,0 +1,51 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.config.ConfigServerProperties;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves environments the same way the config server's {@code EnvironmentController} does, for endpoints
+ * that are served outside of it: through the primary repository, then decrypted when server-side
+ * decryption is enabled.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConfigResolutionService {
+
+    private final EnvironmentRepository environmentRepository;
+    private final ObjectProvider<EnvironmentEncryptor> environmentEncryptors;
+    private final ConfigServerProperties configServerProperties;
+
+    public Environment resolve(String application, String profiles, String label) {
+        Environment environment = environmentRepository.findOne(application, profiles, label);
+        if (environment != null && configServerProperties.getEncrypt().isEnabled()) {
+            List<EnvironmentEncryptor> encryptors = environmentEncryptors.orderedStream().toList();
+            for (EnvironmentEncryptor encryptor : encryptors) {
+                environment = encryptor.decrypt(environment);
+            }
+        }
+        return environment;
+    }
+
+    /**
+     * Collapses the property sources into the effective key/value view a client ends up with.
+     */
+    public static Map<String, String> flatten(Environment environment) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (PropertySource source : environment.getPropertySources()) {
+            source.getSource().forEach((key, value) ->
+                    properties.putIfAbsent(String.valueOf(key), value != null ? String.valueOf(value) : null));
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,175 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.MetricsConfig;
+import com.deepintent.di_config_server_demo.common.repository.ApplicationDiscovery;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The config server's own meters.
+ * <ul>
+ *     <li>{@code config.requests.active}: environment requests in progress</li>
+ *     <li>{@code config.request}: environment request latency by application and outcome</li>
+ *     <li>{@code config.request.phase}: request latency split into {@code filter}, {@code repository} and
+ *     {@code serialization} time</li>
+ *     <li>{@code config.git.fetch}, {@code config.git.fetch.bytes}: mirror fetches and pack bytes received</li>
+ *     <li>{@code config.git.checkout}, {@code config.git.checkout.bytes}: commits materialized as worktrees
+ *     or indexed as snapshots, and blob bytes read from the mirror</li>
+ *     <li>{@code config.vault.read}: Vault reads by outcome</li>
+ * </ul>
+ * The request timers publish histograms, so they carry no client-chosen tags besides the application, and
+ * only applications the repository has config for are named: the ones {@link ApplicationDiscovery} lists
+ * at the default label, or, without the git mirror, the first {@code max-applications} requested. Anything
+ * else is reported as {@code other}.
+ */
+@Slf4j
+@Component
+public class ConfigServerMetrics {
+
+    private static final Duration MAX_EXPECTED_LATENCY = Duration.ofSeconds(30);
+
+    private final MeterRegistry registry;
+    private final ObjectProvider<ApplicationDiscovery> discovery;
+    private final BoundedTagValues requestedApplications;
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final Map<RequestTimerKey, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Timer filterPhase;
+    private final Timer repositoryPhase;
+    private final Timer serializationPhase;
+    private final Timer vaultReadSuccess;
+    private final Timer vaultReadFailure;
+
+    public ConfigServerMetrics(MeterRegistry registry, MetricsConfig config, ObjectProvider<ApplicationDiscovery> discovery) {
+        this.registry = registry;
+        this.discovery = discovery;
+        this.requestedApplications = new BoundedTagValues(config.getMaxApplications());
+        registry.gauge("config.requests.active", activeRequests);
+        this.filterPhase = phaseTimer("filter");
+        this.repositoryPhase = phaseTimer("repository");
+        this.serializationPhase = phaseTimer("serialization");
+        this.vaultReadSuccess = vaultReadTimer("success");
+        this.vaultReadFailure = vaultReadTimer("failure");
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    public void requestStarted() {
+        activeRequests.incrementAndGet();
+    }
+
+    public void requestFinished(String application, int status, long totalNanos, long handlerNanos, long repositoryNanos) {
+        activeRequests.decrementAndGet();
+        RequestTimerKey key = new RequestTimerKey(applicationTag(application), Outcome.forStatus(status));
+        requestTimers.computeIfAbsent(key, this::requestTimer).record(totalNanos, TimeUnit.NANOSECONDS);
+
+        filterPhase.record(Math.max(0, totalNanos - handlerNanos), TimeUnit.NANOSECONDS);
+        if (handlerNanos > 0) {
+            repositoryPhase.record(Math.max(0, repositoryNanos), TimeUnit.NANOSECONDS);
+            serializationPhase.record(Math.max(0, handlerNanos - repositoryNanos), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordGitFetch(boolean success, long nanos, long bytes) {
+        Timer.builder("config.git.fetch")
+                .tag("outcome", success ? "success" : "failure")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (success) {
+            DistributionSummary.builder("config.git.fetch.bytes")
+                    .baseUnit("bytes")
+                    .register(registry)
+                    .record(bytes);
+        }
+    }
+
+    /**
+     * @param mode {@code worktree} or {@code object}
+     */
+    public void recordGitCheckout(String mode, long nanos) {
+        Timer.builder("config.git.checkout")
+                .tag("mode", mode)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordGitBytesRead(String mode, long bytes) {
+        DistributionSummary.builder("config.git.checkout.bytes")
+                .baseUnit("bytes")
+                .tag("mode", mode)
+                .register(registry)
+                .record(bytes);
+    }
+
+    public <T> T recordVaultRead(Supplier<T> read) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = read.get();
+            success = true;
+            return result;
+        } finally {
+            (success ? vaultReadSuccess : vaultReadFailure).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String applicationTag(String application) {
+        if (application == null || application.isEmpty()) {
+            return BoundedTagValues.NONE;
+        }
+        ApplicationDiscovery applicationDiscovery = discovery.getIfAvailable();
+        if (applicationDiscovery != null) {
+            try {
+                Set<String> known = applicationDiscovery.knownApplications();
+                if (!known.isEmpty()) {
+                    return known.contains(application) ? application : BoundedTagValues.OTHER;
+                }
+            } catch (RuntimeException e) {
+                log.debug("Could not list known applications: {}", e.getMessage());
+            }
+        }
+        return requestedApplications.of(application);
+    }
+
+    private Timer requestTimer(RequestTimerKey key) {
+        return Timer.builder("config.request")
+                .tag("application", key.application())
+                .tag("outcome", key.outcome().name())
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_LATENCY)
+                .register(registry);
+    }
+
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("config.request.phase")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_LATENCY)
+                .register(registry);
+    }
+
+    private Timer vaultReadTimer(String outcome) {
+        return Timer.builder("config.vault.read")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_LATENCY)
+                .register(registry);
+    }
+
+    private record RequestTimerKey(String application, Outcome outcome) {
+    }
+}
@@ -0,0 +1,222 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import com.deepintent.di_config_server_demo.common.config.SubscriptionConfig;
+import com.deepintent.di_config_server_demo.common.repository.LabelVersionResolver;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Holds SSE and long-poll subscribers per application/profiles/label and pushes a {@link ConfigChange}
+ * to them when their label moves to a commit that affects their files. Both kinds of subscriber are
+ * parked as async servlet requests, so an idle subscriber costs no thread. Which subscribers a change
+ * affects is worked out on a notifier thread, as it may take a delta per subscribed environment.
+ */
+@Slf4j
+@Service
+public class ConfigSubscriptionService {
+
+    private final LabelVersionResolver versionResolver;
+    private final EnvironmentDeltaService deltaService;
+    private final GitConfig gitConfig;
+    private final SubscriptionConfig config;
+    private final Map<Topic, Subscribers> topics = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService heartbeats;
+    private final ExecutorService notifier;
+
+    public ConfigSubscriptionService(LabelVersionResolver versionResolver,
+                                     EnvironmentDeltaService deltaService,
+                                     GitConfig gitConfig,
+                                     SubscriptionConfig config) {
+        this(versionResolver, deltaService, gitConfig, config, newNotifier());
+    }
+
+    ConfigSubscriptionService(LabelVersionResolver versionResolver,
+                              EnvironmentDeltaService deltaService,
+                              GitConfig gitConfig,
+                              SubscriptionConfig config,
+                              ExecutorService notifier) {
+        this.versionResolver = versionResolver;
+        this.deltaService = deltaService;
+        this.gitConfig = gitConfig;
+        this.config = config;
+        this.notifier = notifier;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("config-subscription-heartbeat-");
+        threadFactory.setDaemon(true);
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    private static ExecutorService newNotifier() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("config-subscription-notifier-");
+        threadFactory.setDaemon(true);
+        // One thread, so that the changes of a label reach its subscribers in the order they happened
+        return Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    public record Topic(String application, String profiles, String label) {
+    }
+
+    @PostConstruct
+    public void start() {
+        long interval = config.getHeartbeatInterval().toMillis();
+        heartbeats.scheduleWithFixedDelay(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeats.shutdownNow();
+        notifier.shutdownNow();
+        topics.values().forEach(subscribers -> subscribers.emitters.forEach(SseEmitter::complete));
+        topics.clear();
+    }
+
+    public SseEmitter subscribe(Topic topic) {
+        SseEmitter emitter = new SseEmitter(config.getSseTimeout().toMillis());
+        String version = versionResolver.resolve(topic.label());
+        register(topic, version, subscribers -> subscribers.emitters.add(emitter));
+        Runnable unsubscribe = () -> remove(topic, subscribers -> subscribers.emitters.remove(emitter));
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        send(emitter, SseEmitter.event().name("subscribed")
+                .data(new ConfigChange(topic.application(), topic.profiles(), topic.label(), null, version)));
+        return emitter;
+    }
+
+    public DeferredResult<ResponseEntity<ConfigChange>> poll(Topic topic, String knownVersion) {
+        DeferredResult<ResponseEntity<ConfigChange>> result = new DeferredResult<>(
+                config.getLongPollTimeout().toMillis(), ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        String version = versionResolver.resolve(topic.label());
+        if (version != null && !version.equals(knownVersion)) {
+            result.setResult(ResponseEntity.ok(
+                    new ConfigChange(topic.application(), topic.profiles(), topic.label(), knownVersion, version)));
+            return result;
+        }
+
+        register(topic, version, subscribers -> subscribers.polls.add(result));
+        result.onCompletion(() -> remove(topic, subscribers -> subscribers.polls.remove(result)));
+        return result;
+    }
+
+    /**
+     * The labels that have subscribers, each with the commit it was at when its first current subscriber
+     * registered, or {@code null} if it could not be resolved then.
+     */
+    public Map<String, String> activeLabels() {
+        Map<String, String> labels = new HashMap<>();
+        topics.forEach((topic, subscribers) -> {
+            if (labels.get(topic.label()) == null) {
+                labels.put(topic.label(), subscribers.baseline);
+            }
+        });
+        return labels;
+    }
+
+    public int getSubscriberCount() {
+        return topics.values().stream().mapToInt(Subscribers::size).sum();
+    }
+
+    @EventListener
+    public void onLabelCommitChanged(LabelCommitChangedEvent event) {
+        try {
+            notifier.execute(() -> notifySubscribers(event));
+        } catch (RejectedExecutionException e) {
+            log.debug("Not notifying subscribers of {}, shutting down", event);
+        }
+    }
+
+    private void notifySubscribers(LabelCommitChangedEvent event) {
+        topics.forEach((topic, subscribers) -> {
+            if (!topic.label().equals(event.label()) || !isAffected(topic, event)) {
+                return;
+            }
+            ConfigChange change = new ConfigChange(topic.application(), topic.profiles(), topic.label(),
+                    event.previousVersion(), event.version());
+            log.debug("Notifying {} subscribers of {}", subscribers.size(), change);
+            subscribers.emitters.forEach(emitter -> send(emitter, SseEmitter.event().name("change").data(change)));
+            subscribers.polls.forEach(poll -> poll.setResult(ResponseEntity.ok(change)));
+        });
+    }
+
+    private boolean isAffected(Topic topic, LabelCommitChangedEvent event) {
+        if (event.changedPaths() != null) {
+            List<String> prefixes = gitConfig.searchPrefixes(topic.application());
+            return event.changedPaths().stream().anyMatch(path -> prefixes.stream().anyMatch(path::startsWith));
+        }
+        if (event.previousVersion() == null) {
+            return true;
+        }
+        try {
+            return !deltaService.delta(topic.application(), topic.profiles(), event.version(), event.previousVersion()).isEmpty();
+        } catch (RuntimeException e) {
+            log.debug("Could not compute delta for {}, notifying anyway: {}", topic, e.getMessage());
+            return true;
+        }
+    }
+
+    void sendHeartbeats() {
+        topics.values().forEach(subscribers ->
+                subscribers.emitters.forEach(emitter -> send(emitter, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void register(Topic topic, String version, Consumer<Subscribers> registration) {
+        topics.compute(topic, (key, subscribers) -> {
+            Subscribers target = subscribers != null ? subscribers : new Subscribers(version);
+            registration.accept(target);
+            return target;
+        });
+    }
+
+    private void remove(Topic topic, Consumer<Subscribers> removal) {
+        topics.computeIfPresent(topic, (key, subscribers) -> {
+            removal.accept(subscribers);
+            return subscribers.size() == 0 ? null : subscribers;
+        });
+    }
+
+    private static final class Subscribers {
+
+        private final String baseline;
+        private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+        private final Set<DeferredResult<ResponseEntity<ConfigChange>>> polls = ConcurrentHashMap.newKeySet();
+
+        Subscribers(String baseline) {
+            this.baseline = baseline;
+        }
+
+        int size() {
+            return emitters.size() + polls.size();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import com.deepintent.di_config_server_demo.common.config.ThreadingConfig;
+import com.deepintent.di_config_server_demo.common.config.WarmupConfig;
+import com.deepintent.di_config_server_demo.common.repository.ApplicationDiscovery;
+import com.deepintent.di_config_server_demo.common.repository.GitRefreshScheduler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves the environments of the warm-up manifest, plus every application discovered in the git mirror,
+ * in parallel once the application is ready. Each resolution goes through the full repository chain, so the
+ * commit snapshot, parsed files, environment cache and decrypted values are populated before the first
+ * client asks. {@link #getStatus()} backs the {@code warmup} readiness indicator.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(
+    name = "deepintent.config-server.warmup.enabled",
+    havingValue = "true",
+    matchIfMissing = true
+)
+@RequiredArgsConstructor
+public class ConfigWarmupService implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final WarmupConfig config;
+    private final GitConfig gitConfig;
+    private final ThreadingConfig threading;
+    private final ConfigResolutionService resolutionService;
+    private final ObjectProvider<GitRefreshScheduler> refreshScheduler;
+    private final ObjectProvider<ApplicationDiscovery> discovery;
+
+    private final AtomicInteger resolved = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile WarmupStatus.State state = WarmupStatus.State.PENDING;
+    private volatile int targets;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    @Override
+    public void onApplicationEvent(@NonNull ApplicationReadyEvent event) {
+        Thread.ofPlatform().name("config-warmup").daemon(true).start(this::warmUp);
+    }
+
+    public WarmupStatus getStatus() {
+        long start = startNanos;
+        long end = state == WarmupStatus.State.RUNNING ? System.nanoTime() : endNanos;
+        long elapsed = start != 0 ? TimeUnit.NANOSECONDS.toMillis(end - start) : 0;
+        return new WarmupStatus(state, targets, resolved.get(), failed.get(), elapsed);
+    }
+
+    void warmUp() {
+        startNanos = System.nanoTime();
+        state = WarmupStatus.State.RUNNING;
+        long deadline = startNanos + config.getDeadline().toNanos();
+
+        List<WarmupTarget> warmupTargets;
+        try {
+            awaitMirror(deadline);
+            warmupTargets = targets();
+        } catch (RuntimeException e) {
+            log.warn("Could not determine warm-up targets: {}", e.getMessage());
+            warmupTargets = List.of();
+        }
+        targets = warmupTargets.size();
+        log.info("Warming up {} environments (parallelism {}, deadline {})",
+                warmupTargets.size(), config.getParallelism(), config.getDeadline());
+
+        ExecutorService executor = threading.newBlockingExecutor("config-warmup-", config.getParallelism());
+        try {
+            CompletableFuture<?>[] futures = warmupTargets.stream()
+                    .map(target -> CompletableFuture.runAsync(() -> resolve(target), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            finish(WarmupStatus.State.COMPLETED);
+        } catch (TimeoutException e) {
+            finish(WarmupStatus.State.DEADLINE_EXCEEDED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(WarmupStatus.State.DEADLINE_EXCEEDED);
+        } catch (ExecutionException e) {
+            // resolve() handles its own failures
+            finish(WarmupStatus.State.COMPLETED);
+        } finally {
+            // Targets still running after the deadline finish in the background and keep their cache entries
+            executor.shutdown();
+        }
+    }
+
+    private void finish(WarmupStatus.State outcome) {
+        endNanos = System.nanoTime();
+        state = outcome;
+        WarmupStatus status = getStatus();
+        if (outcome == WarmupStatus.State.DEADLINE_EXCEEDED) {
+            log.warn("Warm-up deadline of {} passed with {}/{} environments resolved, reporting ready anyway",
+                    config.getDeadline(), status.resolved() + status.failed(), status.targets());
+        } else {
+            log.info("Warmed up {} environments in {} ms ({} failed)",
+                    status.targets(), status.elapsedMillis(), status.failed());
+        }
+    }
+
+    private void resolve(WarmupTarget target) {
+        try {
+            resolutionService.resolve(target.application(), target.profiles(), target.label());
+            resolved.incrementAndGet();
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("Warm-up of {} failed: {}", target, e.getMessage());
+        }
+    }
+
+    /**
+     * The mirror is cloned in the background; discovery and resolution need it in place.
+     */
+    private void awaitMirror(long deadline) {
+        GitRefreshScheduler scheduler = refreshScheduler.getIfAvailable();
+        if (scheduler == null || scheduler.isReady() || !StringUtils.hasText(gitConfig.getUri())) {
+            return;
+        }
+        try {
+            scheduler.refresh().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Git mirror not ready for warm-up: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The manifest entries plus the discovered applications. An invalid entry or a label that cannot be
+     * listed is logged and skipped on its own, so the rest is still warmed up.
+     */
+    private List<WarmupTarget> targets() {
+        Set<WarmupTarget> targets = new LinkedHashSet<>();
+        for (String entry : config.getManifest()) {
+            try {
+                targets.add(WarmupTarget.parse(entry, gitConfig.getDefaultLabel()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping warm-up manifest entry: {}", e.getMessage());
+            }
+        }
+
+        GitRefreshScheduler scheduler = refreshScheduler.getIfAvailable();
+        ApplicationDiscovery applicationDiscovery = discovery.getIfAvailable();
+        if (config.isDiscover() && scheduler != null && applicationDiscovery != null) {
+            List<String> labels = config.getLabels().isEmpty() ? List.of(gitConfig.getDefaultLabel()) : config.getLabels();
+            for (String label : labels) {
+                String version = scheduler.resolve(label);
+                if (version == null) {
+                    log.warn("Warm-up label '{}' is not in the git mirror, skipping discovery for it", label);
+                    continue;
+                }
+                Map<String, Set<String>> applications;
+                try {
+                    applications = applicationDiscovery.discover(version);
+                } catch (RuntimeException e) {
+                    log.warn("Could not discover applications at '{}' for warm-up: {}", label, e.getMessage());
+                    continue;
+                }
+                for (Map.Entry<String, Set<String>> application : applications.entrySet()) {
+                    for (String profile : application.getValue()) {
+                        targets.add(new WarmupTarget(application.getKey(), profile, label));
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(targets);
+    }
+}
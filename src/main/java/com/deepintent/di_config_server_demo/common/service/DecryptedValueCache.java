@@ -0,0 +1,136 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.DecryptionCacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Decrypted {@code {cipher}} values keyed by (key id, ciphertext), so each value is decrypted once per key
+ * rather than once per request. Plaintexts only live here and in responses: they are never logged.
+ * {@link #isDecryptedKey(String)} tells the request log which property keys held ciphertext, and
+ * {@link #appearsIn(String)} whether free text contains a plaintext long enough to be told apart from
+ * ordinary values such as {@code true} or {@code 8080}.
+ * <p>
+ * Everything is dropped when an {@code encrypt.*} property changes, since that is how keys are rotated,
+ * together with the rendered responses and delta snapshots that contain decrypted values.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(
+    name = "deepintent.config-server.decryption-cache.enabled",
+    havingValue = "true",
+    matchIfMissing = true
+)
+public class DecryptedValueCache {
+
+    /**
+     * Shorter plaintexts are not looked for in free text, they would match all over it.
+     */
+    static final int MIN_MATCHED_LENGTH = 8;
+
+    private final Cache<CipherKey, String> plaintexts;
+    private final Map<String, Integer> cachedPlaintexts = new ConcurrentHashMap<>();
+    private final Set<String> decryptedKeys = ConcurrentHashMap.newKeySet();
+    private final RenderedResponseCache renderedResponses;
+    private final ObjectProvider<EnvironmentDeltaService> deltaService;
+
+    public DecryptedValueCache(DecryptionCacheConfig config,
+                               RenderedResponseCache renderedResponses,
+                               ObjectProvider<EnvironmentDeltaService> deltaService) {
+        this.renderedResponses = renderedResponses;
+        this.deltaService = deltaService;
+        this.plaintexts = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterAccess(config.getExpireAfterAccess())
+                // Forget plaintexts as they are removed, so appearsIn never matches a discarded value
+                .executor(Runnable::run)
+                .removalListener((CipherKey key, String plaintext, RemovalCause cause) -> forget(plaintext))
+                .recordStats()
+                .build();
+    }
+
+    public record CipherKey(String keyId, String cipherText) {
+    }
+
+    public String decrypt(String keyId, String cipherText, Function<String, String> decryptor) {
+        return plaintexts.get(new CipherKey(keyId, cipherText), key -> {
+            String plaintext = decryptor.apply(key.cipherText());
+            if (plaintext != null && plaintext.length() >= MIN_MATCHED_LENGTH) {
+                cachedPlaintexts.merge(plaintext, 1, Integer::sum);
+            }
+            return plaintext;
+        });
+    }
+
+    /**
+     * Notes that {@code key} holds a {@code {cipher}} value in some environment.
+     */
+    public void recordDecryptedKey(String key) {
+        decryptedKeys.add(key);
+    }
+
+    /**
+     * @return whether {@code key} held a {@code {cipher}} value in an environment decrypted so far
+     */
+    public boolean isDecryptedKey(String key) {
+        return key != null && decryptedKeys.contains(key);
+    }
+
+    /**
+     * @return whether a currently cached plaintext of at least {@code MIN_MATCHED_LENGTH} characters occurs
+     * somewhere in {@code text}
+     */
+    public boolean appearsIn(String text) {
+        if (text == null || text.length() < MIN_MATCHED_LENGTH) {
+            return false;
+        }
+        for (String plaintext : cachedPlaintexts.keySet()) {
+            if (text.contains(plaintext)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long size() {
+        return plaintexts.estimatedSize();
+    }
+
+    public Cache<CipherKey, String> getCache() {
+        return plaintexts;
+    }
+
+    public void invalidateAll() {
+        log.info("Discarding {} decrypted values", plaintexts.estimatedSize());
+        plaintexts.invalidateAll();
+        renderedResponses.invalidateAll();
+        deltaService.ifAvailable(EnvironmentDeltaService::invalidateAll);
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith("encrypt."))) {
+            log.info("Encryption keys changed, discarding decrypted values");
+            invalidateAll();
+        }
+    }
+
+    private void forget(String plaintext) {
+        if (plaintext != null && plaintext.length() >= MIN_MATCHED_LENGTH) {
+            cachedPlaintexts.computeIfPresent(plaintext, (value, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import java.util.List;
+import java.util.Map;
+
+public record EnvironmentDelta(String application,
+                               String profiles,
+                               String label,
+                               String fromVersion,
+                               String version,
+                               Map<String, String> added,
+                               Map<String, String> changed,
+                               List<String> removed) {
+
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+}
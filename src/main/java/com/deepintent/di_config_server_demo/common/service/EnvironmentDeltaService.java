@@ -0,0 +1,120 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.EnvironmentDeltaConfig;
+import com.deepintent.di_config_server_demo.common.repository.VaultSecretCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Computes which keys were added, changed or removed between two commits of an environment.
+ * Flattened snapshots are kept per (application, profiles, commit), so the older side of a delta is
+ * usually already in memory and an older commit is only checked out once. Snapshots include the Vault
+ * secrets overlaid on the commit, so they are also keyed by the {@link VaultSecretCache#getGeneration()
+ * secrets generation} they were taken at; a rotated secret is never served from an older snapshot.
+ */
+@Slf4j
+@Service
+public class EnvironmentDeltaService {
+
+    private final ConfigResolutionService resolutionService;
+    private final ObjectProvider<VaultSecretCache> vaultSecrets;
+    private final Cache<SnapshotKey, Map<String, String>> snapshots;
+
+    public EnvironmentDeltaService(ConfigResolutionService resolutionService,
+                                   ObjectProvider<VaultSecretCache> vaultSecrets,
+                                   EnvironmentDeltaConfig config) {
+        this.resolutionService = resolutionService;
+        this.vaultSecrets = vaultSecrets;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(config.getMaximumWeight())
+                .weigher((SnapshotKey key, Map<String, String> properties) -> properties.size() + 1)
+                .expireAfterAccess(config.getExpireAfterAccess())
+                .recordStats()
+                .build();
+    }
+
+    public EnvironmentDelta delta(String application, String profiles, String label, String sinceVersion) {
+        long generation = secretsGeneration();
+        Environment current = resolutionService.resolve(application, profiles, label);
+        String version = current.getVersion();
+        Map<String, String> currentProperties = version != null
+                ? snapshots.get(new SnapshotKey(application, profiles, version, generation),
+                        key -> ConfigResolutionService.flatten(current))
+                : ConfigResolutionService.flatten(current);
+
+        if (sinceVersion == null) {
+            return new EnvironmentDelta(application, profiles, label, null, version, currentProperties, Map.of(), List.of());
+        }
+        if (sinceVersion.equals(version)) {
+            return new EnvironmentDelta(application, profiles, label, sinceVersion, version, Map.of(), Map.of(), List.of());
+        }
+
+        Map<String, String> previousProperties = snapshot(application, profiles, sinceVersion, generation);
+        return diff(application, profiles, label, sinceVersion, version, previousProperties, currentProperties);
+    }
+
+    public Map<String, String> snapshot(String application, String profiles, String version) {
+        return snapshot(application, profiles, version, secretsGeneration());
+    }
+
+    private Map<String, String> snapshot(String application, String profiles, String version, long generation) {
+        return snapshots.get(new SnapshotKey(application, profiles, version, generation), key -> {
+            log.debug("Loading {}/{} at {} for delta computation", application, profiles, version);
+            return ConfigResolutionService.flatten(resolutionService.resolve(application, profiles, version));
+        });
+    }
+
+    private long secretsGeneration() {
+        VaultSecretCache secrets = vaultSecrets.getIfAvailable();
+        return secrets != null ? secrets.getGeneration() : 0;
+    }
+
+    /**
+     * Drops all snapshots, which hold decrypted values.
+     */
+    public void invalidateAll() {
+        log.info("Discarding {} delta snapshots", snapshots.estimatedSize());
+        snapshots.invalidateAll();
+    }
+
+    public Cache<SnapshotKey, Map<String, String>> getSnapshots() {
+        return snapshots;
+    }
+
+    static EnvironmentDelta diff(String application, String profiles, String label, String fromVersion, String version,
+                                 Map<String, String> previous, Map<String, String> current) {
+        Map<String, String> added = new LinkedHashMap<>();
+        Map<String, String> changed = new LinkedHashMap<>();
+        List<String> removed = new ArrayList<>();
+
+        current.forEach((key, value) -> {
+            if (!previous.containsKey(key)) {
+                added.put(key, value);
+            } else if (!Objects.equals(previous.get(key), value)) {
+                changed.put(key, value);
+            }
+        });
+        previous.keySet().forEach(key -> {
+            if (!current.containsKey(key)) {
+                removed.add(key);
+            }
+        });
+        return new EnvironmentDelta(application, profiles, label, fromVersion, version, added, changed, removed);
+    }
+
+    /**
+     * @param secretsGeneration the Vault secrets generation, {@code 0} without Vault
+     */
+    public record SnapshotKey(String application, String profiles, String version, long secretsGeneration) {
+    }
+}
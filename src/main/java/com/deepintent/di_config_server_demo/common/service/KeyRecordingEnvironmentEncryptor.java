@@ -0,0 +1,34 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+
+/**
+ * Reports the property keys holding {@code {cipher}} values to the {@link DecryptedValueCache} before
+ * decrypting, so that the request log masks the decrypted values by key rather than by guessing from values.
+ */
+public class KeyRecordingEnvironmentEncryptor implements EnvironmentEncryptor {
+
+    private static final String CIPHER_PREFIX = "{cipher}";
+
+    private final EnvironmentEncryptor delegate;
+    private final DecryptedValueCache cache;
+
+    public KeyRecordingEnvironmentEncryptor(EnvironmentEncryptor delegate, DecryptedValueCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Environment decrypt(Environment environment) {
+        for (PropertySource source : environment.getPropertySources()) {
+            source.getSource().forEach((key, value) -> {
+                if (value instanceof String text && text.startsWith(CIPHER_PREFIX)) {
+                    cache.recordDecryptedKey(String.valueOf(key));
+                }
+            });
+        }
+        return delegate.decrypt(environment);
+    }
+}
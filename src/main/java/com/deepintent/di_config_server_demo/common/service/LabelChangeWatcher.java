@@ -0,0 +1,87 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.SubscriptionConfig;
+import com.deepintent.di_config_server_demo.common.repository.LabelVersionResolver;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the labels that have subscribers and publishes a {@link LabelCommitChangedEvent} when one moves.
+ * Not needed when the background git refresh is enabled, as that publishes the events itself.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(
+    name = "deepintent.config-server.git-refresh.enabled",
+    havingValue = "false",
+    matchIfMissing = true
+)
+public class LabelChangeWatcher {
+
+    private final LabelVersionResolver versionResolver;
+    private final ConfigSubscriptionService subscriptionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SubscriptionConfig config;
+    private final Map<String, String> versions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+
+    public LabelChangeWatcher(LabelVersionResolver versionResolver,
+                              ConfigSubscriptionService subscriptionService,
+                              ApplicationEventPublisher eventPublisher,
+                              SubscriptionConfig config) {
+        this.versionResolver = versionResolver;
+        this.subscriptionService = subscriptionService;
+        this.eventPublisher = eventPublisher;
+        this.config = config;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("config-label-watcher-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @PostConstruct
+    public void start() {
+        long interval = config.getWatchInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::checkLabels, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    void checkLabels() {
+        try {
+            Map<String, String> labels = subscriptionService.activeLabels();
+            versions.keySet().retainAll(labels.keySet());
+            for (Map.Entry<String, String> entry : labels.entrySet()) {
+                String label = entry.getKey();
+                String version = versionResolver.resolve(label);
+                if (version == null) {
+                    continue;
+                }
+                String previous = versions.put(label, version);
+                if (previous == null) {
+                    // First check of this label: compare with the commit its subscribers registered at
+                    previous = entry.getValue();
+                }
+                if (previous != null && !previous.equals(version)) {
+                    log.info("Label '{}' moved from {} to {}", label, previous, version);
+                    eventPublisher.publishEvent(new LabelCommitChangedEvent(label, previous, version, null));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Label watch failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import java.util.Set;
+
+/**
+ * Published when a label is observed pointing at a new commit.
+ *
+ * @param changedPaths repository paths touched between the two commits, or {@code null} when unknown
+ */
+public record LabelCommitChangedEvent(String label, String previousVersion, String version, Set<String> changedPaths) {
+}
@@ -0,0 +1,35 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.ResponseSummary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The finished bytes of one environment rendering, with a gzip variant when the body is large enough to
+ * be worth compressing. {@code summary} is what the request log records for it, or {@code null} when
+ * summary logging is off.
+ */
+public record RenderedResponse(String contentType, byte[] identity, byte[] gzip, ResponseSummary summary) {
+
+    public static RenderedResponse of(String contentType, byte[] identity, long minCompressSize, ResponseSummary summary) {
+        byte[] gzip = identity.length >= minCompressSize ? gzip(identity) : null;
+        return new RenderedResponse(contentType, identity, gzip != null && gzip.length < identity.length ? gzip : null, summary);
+    }
+
+    public int weight() {
+        return identity.length + (gzip != null ? gzip.length : 0);
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer, 8192)) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,45 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.RenderedResponseConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rendered environment responses keyed by their ETag. The ETag already covers the commit, the request
+ * coordinates, the format and the negotiated media type, so an entry never needs to be invalidated when
+ * a label moves: requests for the new commit simply get a new key.
+ */
+@Slf4j
+@Service
+public class RenderedResponseCache {
+
+    private final Cache<String, RenderedResponse> responses;
+
+    public RenderedResponseCache(RenderedResponseConfig config) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(config.getMaximumSize().toBytes())
+                .weigher((String etag, RenderedResponse response) -> response.weight())
+                .expireAfterAccess(config.getExpireAfterAccess())
+                .recordStats()
+                .build();
+    }
+
+    public RenderedResponse get(String etag) {
+        return responses.getIfPresent(etag);
+    }
+
+    public void put(String etag, RenderedResponse response) {
+        responses.put(etag, response);
+    }
+
+    public void invalidateAll() {
+        log.info("Discarding {} rendered responses", responses.estimatedSize());
+        responses.invalidateAll();
+    }
+
+    public Cache<String, RenderedResponse> getCache() {
+        return responses;
+    }
+}
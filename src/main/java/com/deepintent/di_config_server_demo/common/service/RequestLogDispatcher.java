@@ -0,0 +1,80 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.RequestLoggingConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes request summaries from a single background thread. Entries that do not fit into the bounded
+ * queue are dropped and counted rather than slowing down the request thread.
+ */
+@Slf4j
+@Service
+public class RequestLogDispatcher {
+
+    private final BlockingQueue<RequestLogEntry> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public RequestLogDispatcher(RequestLoggingConfig config) {
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        this.worker = new Thread(this::drain, "config-request-log");
+        this.worker.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public boolean submit(RequestLogEntry entry) {
+        if (queue.offer(entry)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        long reportedDrops = 0;
+        while (running || !queue.isEmpty()) {
+            try {
+                RequestLogEntry entry = running ? queue.poll(1, TimeUnit.SECONDS) : queue.poll();
+                if (entry != null) {
+                    log.info("{}", entry);
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    continue;
+                }
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long drops = dropped.get();
+            if (drops > reportedDrops) {
+                log.warn("Dropped {} request log entries because the log queue was full", drops - reportedDrops);
+                reportedDrops = drops;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.ResponseSummary;
+
+public record RequestLogEntry(String method,
+                              String path,
+                              String application,
+                              String profile,
+                              String label,
+                              int status,
+                              long durationMillis,
+                              ResponseSummary summary) {
+
+    @Override
+    public String toString() {
+        return method + " " + path
+                + " application=" + application
+                + " profile=" + profile
+                + " label=" + label
+                + " status=" + status
+                + " durationMs=" + durationMillis
+                + " " + summary;
+    }
+}
@@ -0,0 +1,18 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+/**
+ * Progress of the startup warm-up. {@code done} once every target was resolved or the deadline passed.
+ */
+public record WarmupStatus(State state, int targets, int resolved, int failed, long elapsedMillis) {
+
+    public enum State {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        DEADLINE_EXCEEDED
+    }
+
+    public boolean done() {
+        return state == State.COMPLETED || state == State.DEADLINE_EXCEEDED;
+    }
+}
@@ -0,0 +1,25 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * One environment resolved during startup warm-up.
+ */
+public record WarmupTarget(String application, String profiles, String label) {
+
+    /**
+     * Parses a manifest entry of the form {@code application/profiles[/label]}.
+     */
+    public static WarmupTarget parse(String entry, String defaultLabel) {
+        String[] parts = entry.trim().split("/", 3);
+        if (parts.length < 2 || !StringUtils.hasText(parts[0]) || !StringUtils.hasText(parts[1])) {
+            throw new IllegalArgumentException("Warm-up entry '" + entry + "' is not of the form application/profiles[/label]");
+        }
+        return new WarmupTarget(parts[0], parts[1], parts.length == 3 && StringUtils.hasText(parts[2]) ? parts[2] : defaultLabel);
+    }
+
+    @Override
+    public String toString() {
+        return application + "/" + profiles + "/" + label;
+    }
+}
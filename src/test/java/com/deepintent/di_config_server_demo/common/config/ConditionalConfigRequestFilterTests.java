@@ -0,0 +1,125 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.repository.VaultSecretCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalConfigRequestFilterTests {
+
+    private static final String COMMIT = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+
+    private final AtomicInteger chainCalls = new AtomicInteger();
+
+    private final ConfigRequestTagger tagger = new ConfigRequestTagger(
+            new StaticListableBeanFactory().getBeanProvider(VaultSecretCache.class));
+
+    private final ConditionalConfigRequestFilter filter = new ConditionalConfigRequestFilter(
+            label -> "missing".equals(label) ? null : COMMIT, tagger);
+
+    @Test
+    void answersMatchingValidatorWithNotModified() throws Exception {
+        String etag = serve(request(null), ok()).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse response = serve(request(etag), ok());
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(chainCalls).hasValue(1);
+    }
+
+    @Test
+    void acceptsTheGzipAndWeakFormsOfTheValidator() throws Exception {
+        String etag = serve(request(null), ok()).getHeader(HttpHeaders.ETAG);
+
+        assertThat(serve(request(ConfigRequest.encodedEtag(etag, ConfigRequest.GZIP)), ok()).getStatus())
+                .isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(serve(request("\"other\", W/" + etag), ok()).getStatus())
+                .isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(serve(request("\"other\""), ok()).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void sendsValidatorWithSuccessfulResponsesOnly() throws Exception {
+        MockHttpServletResponse ok = serve(request(null), ok());
+        assertThat(ok.getHeader(HttpHeaders.ETAG)).isNotNull();
+        assertThat(ok.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+
+        MockHttpServletResponse notFound = serve(request(null), (request, response) -> {
+            ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_NOT_FOUND);
+            response.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+        });
+        assertThat(notFound.containsHeader(HttpHeaders.ETAG)).isFalse();
+        assertThat(notFound.containsHeader(HttpHeaders.CACHE_CONTROL)).isFalse();
+
+        MockHttpServletResponse unavailable = serve(request(null),
+                (request, response) -> ((HttpServletResponse) response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+        assertThat(unavailable.containsHeader(HttpHeaders.ETAG)).isFalse();
+    }
+
+    @Test
+    void sendsNoValidatorWhenAnotherCommitWasServed() throws Exception {
+        MockHttpServletResponse response = serve(request(null), (request, servletResponse) -> {
+            request.setAttribute(ConfigRequest.VERSION_ATTRIBUTE, "bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb");
+            servletResponse.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.containsHeader(HttpHeaders.ETAG)).isFalse();
+    }
+
+    @Test
+    void keepsTheValidatorSetFurtherDownTheChain() throws Exception {
+        String etag = serve(request(null), ok()).getHeader(HttpHeaders.ETAG);
+        String gzipEtag = ConfigRequest.encodedEtag(etag, ConfigRequest.GZIP);
+
+        MockHttpServletResponse response = serve(request(null), (request, servletResponse) -> {
+            ((HttpServletResponse) servletResponse).setHeader(HttpHeaders.ETAG, gzipEtag);
+            servletResponse.getOutputStream().write(new byte[] {1});
+        });
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(gzipEtag);
+    }
+
+    @Test
+    void passesThroughRequestsItCannotTag() throws Exception {
+        MockHttpServletRequest unresolved = new MockHttpServletRequest("GET", "/publisher-service/dev/missing");
+        assertThat(serve(unresolved, ok()).containsHeader(HttpHeaders.ETAG)).isFalse();
+
+        MockHttpServletRequest actuator = new MockHttpServletRequest("GET", "/actuator/health");
+        actuator.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+        assertThat(serve(actuator, ok()).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(chainCalls).hasValue(2);
+    }
+
+    private MockHttpServletRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/publisher-service/dev/master");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    private FilterChain ok() {
+        return (request, response) -> response.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            chainCalls.incrementAndGet();
+            chain.doFilter(servletRequest, servletResponse);
+        });
+        return response;
+    }
+}
@@ -0,0 +1,193 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.repository.VaultSecretCache;
+import com.deepintent.di_config_server_demo.common.service.DecryptedValueCache;
+import com.deepintent.di_config_server_demo.common.service.RenderedResponseCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RenderedResponseFilterTests {
+
+    private static final String COMMIT = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+    private static final String OTHER_COMMIT = "bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb";
+    private static final String BODY = body(40);
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private final ConfigRequestTagger tagger = new ConfigRequestTagger(
+            new StaticListableBeanFactory().getBeanProvider(VaultSecretCache.class));
+
+    private final RenderedResponseConfig config = config();
+
+    private final RenderedResponseCache cache = new RenderedResponseCache(config);
+
+    private final RenderedResponseFilter filter = new RenderedResponseFilter(cache, config, loggingConfig(),
+            new SensitiveValueMasker(new StaticListableBeanFactory().getBeanProvider(DecryptedValueCache.class)),
+            label -> COMMIT, tagger);
+
+    @Test
+    void rendersOncePerCommitAndServesTheBytesAfterwards() throws Exception {
+        MockHttpServletResponse first = serve(request(), render(COMMIT));
+        MockHttpServletResponse second = serve(request(), render(COMMIT));
+
+        assertThat(renders).hasValue(1);
+        assertThat(second.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(second.getContentType()).isEqualTo("application/json");
+        assertThat(second.getContentAsString()).isEqualTo(BODY).isEqualTo(first.getContentAsString());
+        assertThat(second.getHeader(HttpHeaders.VARY)).isEqualTo("Accept, Accept-Encoding");
+        assertThat(cache.getCache().estimatedSize()).isEqualTo(1);
+    }
+
+    @Test
+    void sendsTheGzipVariantOnlyToClientsThatAcceptIt() throws Exception {
+        serve(request(), render(COMMIT));
+
+        MockHttpServletRequest gzipRequest = request();
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8");
+        MockHttpServletResponse gzip = serve(gzipRequest, render(COMMIT));
+        assertThat(gzip.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gunzip(gzip.getContentAsByteArray())).isEqualTo(BODY);
+
+        MockHttpServletRequest refusing = request();
+        refusing.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0");
+        MockHttpServletResponse identity = serve(refusing, render(COMMIT));
+        assertThat(identity.containsHeader(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(identity.getContentAsString()).isEqualTo(BODY);
+
+        assertThat(renders).hasValue(1);
+    }
+
+    @Test
+    void tagsTheGzipVariantWhenValidatorsAreIssued() throws Exception {
+        MockHttpServletRequest request = gzipRequestWithValidator();
+
+        MockHttpServletResponse response = serve(request, render(COMMIT));
+
+        String etag = (String) request.getAttribute(ConfigRequest.ETAG_ATTRIBUTE);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ConfigRequest.encodedEtag(etag, ConfigRequest.GZIP));
+    }
+
+    @Test
+    void neitherCachesNorTagsAResponseRenderedAtAnotherCommit() throws Exception {
+        MockHttpServletResponse response = serve(gzipRequestWithValidator(), render(OTHER_COMMIT));
+        serve(request(), render(OTHER_COMMIT));
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.containsHeader(HttpHeaders.ETAG)).isFalse();
+        assertThat(renders).hasValue(2);
+        assertThat(cache.getCache().estimatedSize()).isZero();
+    }
+
+    @Test
+    void rendersEachNegotiatedMediaTypeSeparately() throws Exception {
+        MockHttpServletRequest v2 = request();
+        v2.addHeader(HttpHeaders.ACCEPT, "application/vnd.spring-cloud.config-server.v2+json");
+
+        serve(request(), render(COMMIT));
+        serve(v2, render(COMMIT));
+
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void rendersAgainOnceTheCacheWasInvalidated() throws Exception {
+        serve(request(), render(COMMIT));
+
+        cache.invalidateAll();
+        serve(request(), render(COMMIT));
+
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void passesErrorsThroughUncached() throws Exception {
+        FilterChain notFound = (request, response) -> {
+            renders.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_NOT_FOUND);
+            response.setContentType("application/json");
+            response.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+        };
+
+        MockHttpServletResponse response = serve(request(), notFound);
+        serve(request(), notFound);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_FOUND);
+        assertThat(response.getContentAsString()).isEqualTo("{}");
+        assertThat(renders).hasValue(2);
+    }
+
+    private MockHttpServletRequest gzipRequestWithValidator() {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        // As set by ConditionalConfigRequestFilter
+        request.setAttribute(ConfigRequest.ETAG_ATTRIBUTE,
+                tagger.etag(ConfigRequest.parse(request), COMMIT, request));
+        return request;
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/publisher-service/dev/master");
+    }
+
+    /**
+     * The config server rendering the environment, with the repository recording the commit it served.
+     */
+    private FilterChain render(String servedVersion) {
+        return (request, response) -> {
+            renders.incrementAndGet();
+            request.setAttribute(ConfigRequest.VERSION_ATTRIBUTE, servedVersion);
+            response.setContentType("application/json");
+            response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String body(int properties) {
+        StringBuilder body = new StringBuilder("{\"name\":\"publisher-service\",\"propertySources\":[{\"name\":\"a.yml\",\"source\":{");
+        for (int i = 0; i < properties; i++) {
+            body.append(i > 0 ? "," : "").append("\"feature.flag-").append(i).append("\":\"on\"");
+        }
+        return body.append("}}]}").toString();
+    }
+
+    private static String gunzip(byte[] content) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static RenderedResponseConfig config() {
+        RenderedResponseConfig config = new RenderedResponseConfig();
+        ReflectionTestUtils.setField(config, "enabled", true);
+        ReflectionTestUtils.setField(config, "maximumSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(config, "expireAfterAccess", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(config, "minCompressSize", DataSize.ofBytes(64));
+        return config;
+    }
+
+    private static RequestLoggingConfig loggingConfig() {
+        RequestLoggingConfig config = new RequestLoggingConfig();
+        ReflectionTestUtils.setField(config, "mode", RequestLoggingConfig.Mode.VERBOSE);
+        return config;
+    }
+}
@@ -0,0 +1,121 @@
+package com.deepintent.di_config_server_demo.common.config;
+
+import com.deepintent.di_config_server_demo.common.service.DecryptedValueCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseSummarizerTests {
+
+    private static final Set<String> SUMMARY_KEYS = Set.of(
+            "spring.datasource.url", "spring.datasource.password", "greeting.text");
+
+    private final SensitiveValueMasker masker = new SensitiveValueMasker(
+            new StaticListableBeanFactory().getBeanProvider(DecryptedValueCache.class));
+
+    @Test
+    void buildsDottedKeysFromNestedYaml() {
+        ResponseSummary summary = summarize("application/x-yaml", """
+                spring:
+                  datasource:
+                    url: jdbc:postgresql://db/publisher
+                    password: s3cret-password
+                server:
+                  port: 8080
+                """, 64);
+
+        assertThat(summary.format()).isEqualTo("yaml");
+        // Parent lines are not keys of their own
+        assertThat(summary.keyCount()).isEqualTo(3);
+        assertThat(summary.selectedValues())
+                .containsEntry("spring.datasource.url", "jdbc:postgresql://db/publisher")
+                .containsEntry("spring.datasource.password", "s3cr***word");
+    }
+
+    @Test
+    void countsAYamlListAsOneKey() {
+        ResponseSummary summary = summarize("application/x-yaml", """
+                spring:
+                  profiles:
+                    active:
+                    - dev
+                    - cloud
+                  datasource:
+                    url: jdbc:h2:mem
+                hosts:
+                  - a.example.com
+                  - b.example.com
+                """, 64);
+
+        // spring.profiles.active, spring.datasource.url and hosts, whether or not the items are indented
+        assertThat(summary.keyCount()).isEqualTo(3);
+        assertThat(summary.selectedValues()).containsEntry("spring.datasource.url", "jdbc:h2:mem");
+    }
+
+    @Test
+    void decodesMultiByteValuesSplitAcrossWrites() {
+        ResponseSummary summary = summarize("application/x-yaml", """
+                greeting:
+                  text: Grüße aus München – ✓
+                """, 1);
+
+        assertThat(summary.keyCount()).isEqualTo(1);
+        assertThat(summary.selectedValues()).containsEntry("greeting.text", "Grüße aus München – ✓");
+    }
+
+    @Test
+    void keepsPropertiesKeysAsWritten() {
+        ResponseSummary summary = summarize("text/plain", """
+                # comment
+                spring.datasource.url=jdbc:h2:mem
+                server.port: 8080
+                """, 7);
+
+        assertThat(summary.format()).isEqualTo("text");
+        assertThat(summary.keyCount()).isEqualTo(2);
+        assertThat(summary.selectedValues()).containsEntry("spring.datasource.url", "jdbc:h2:mem");
+    }
+
+    @Test
+    void summarizesJsonPropertySources() {
+        String body = """
+                {"name":"publisher-service","profiles":["dev"],"label":"master","version":"abc123",
+                 "propertySources":[
+                   {"name":"services/publisher-service/publisher-service.yml",
+                    "source":{"spring.datasource.url":"jdbc:h2:mem","server.port":8080,"nested":{"ignored":true}}},
+                   {"name":"common/application.yml","source":{"shared":"common"}}]}
+                """;
+
+        ResponseSummary summary = summarize("application/json", body, 13);
+
+        assertThat(summary.format()).isEqualTo("json");
+        assertThat(summary.application()).isEqualTo("publisher-service");
+        assertThat(summary.version()).isEqualTo("abc123");
+        assertThat(summary.sources()).containsExactly(
+                new ResponseSummary.Source("services/publisher-service/publisher-service.yml", 3),
+                new ResponseSummary.Source("common/application.yml", 1));
+        assertThat(summary.selectedValues()).containsOnlyKeys("spring.datasource.url");
+        assertThat(summary.bytes()).isEqualTo(body.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void degradesToACountOfBytesOnMalformedJson() {
+        ResponseSummary summary = summarize("application/json", "{\"name\":]", 64);
+
+        assertThat(summary.sources()).isEmpty();
+        assertThat(summary.bytes()).isEqualTo(9);
+    }
+
+    private ResponseSummary summarize(String contentType, String body, int chunkSize) {
+        ResponseSummarizer summarizer = new ResponseSummarizer(SUMMARY_KEYS, masker);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            summarizer.accept(contentType, bytes, offset, Math.min(chunkSize, bytes.length - offset));
+        }
+        return summarizer.summarize();
+    }
+}
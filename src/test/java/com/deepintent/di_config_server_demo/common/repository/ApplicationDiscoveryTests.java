@@ -0,0 +1,236 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import com.deepintent.di_config_server_demo.common.config.GitRefreshConfig;
+import com.deepintent.di_config_server_demo.common.config.MetricsConfig;
+import com.deepintent.di_config_server_demo.common.config.ThreadingConfig;
+import com.deepintent.di_config_server_demo.common.config.WarmupConfig;
+import com.deepintent.di_config_server_demo.common.config.WarmupHealthIndicator;
+import com.deepintent.di_config_server_demo.common.service.ConfigResolutionService;
+import com.deepintent.di_config_server_demo.common.service.ConfigServerMetrics;
+import com.deepintent.di_config_server_demo.common.service.ConfigWarmupService;
+import com.deepintent.di_config_server_demo.common.service.WarmupStatus;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.config.ConfigServerProperties;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApplicationDiscoveryTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StaticListableBeanFactory beans = new StaticListableBeanFactory();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private Git origin;
+    private GitConfig gitConfig;
+    private GitRefreshScheduler scheduler;
+    private ApplicationDiscovery discovery;
+    private ConfigServerMetrics metrics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        origin = Git.init().setDirectory(tempDir.resolve("origin").toFile()).setInitialBranch("master").call();
+        write("common/application.yml", "shared: common\n");
+        write("common/application-prod.yml", "shared: common-prod\n");
+        write("services/publisher-service/publisher-service.yml", "service.name: publisher\n");
+        write("services/publisher-service/publisher-service-dev.yml", "level: dev\n");
+        write("services/publisher-service/application-qa.properties", "level=qa\n");
+        write("services/publisher-service/README.md", "not config\n");
+        write("services/billing-service/billing-service.yaml", "service.name: billing\n");
+        write("services/billing-service/nested/ignored.yml", "ignored: true\n");
+        write("docs/other-service/other-service.yml", "outside: search paths\n");
+        commit("Initial config");
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.cloud.config.server.composite[0].search-paths[0]", "common")
+                .withProperty("spring.cloud.config.server.composite[0].search-paths[1]", "services/{application}");
+        gitConfig = new GitConfig(environment);
+        ReflectionTestUtils.setField(gitConfig, "uri", tempDir.resolve("origin").toString());
+        ReflectionTestUtils.setField(gitConfig, "defaultLabel", "master");
+
+        GitRefreshConfig refreshConfig = new GitRefreshConfig();
+        ReflectionTestUtils.setField(refreshConfig, "basedir", tempDir.resolve("server").toString());
+        ReflectionTestUtils.setField(refreshConfig, "minOnDemandInterval", Duration.ofHours(1));
+
+        MetricsConfig metricsConfig = new MetricsConfig();
+        ReflectionTestUtils.setField(metricsConfig, "maxApplications", 10);
+        // Discovery needs the scheduler, which records into the metrics, so the metrics look it up lazily
+        metrics = new ConfigServerMetrics(registry, metricsConfig, beans.getBeanProvider(ApplicationDiscovery.class));
+        scheduler = new GitRefreshScheduler(gitConfig, refreshConfig, event -> { }, metrics);
+        scheduler.refresh().get(30, TimeUnit.SECONDS);
+        discovery = new ApplicationDiscovery(scheduler, gitConfig);
+        beans.addBean("gitRefreshScheduler", scheduler);
+        beans.addBean("applicationDiscovery", discovery);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        scheduler.stop();
+        origin.close();
+    }
+
+    @Test
+    void listsApplicationDirectoriesWithTheirProfiles() {
+        assertThat(discovery.discover(scheduler.resolve("master")))
+                .containsOnlyKeys("publisher-service", "billing-service")
+                .containsEntry("publisher-service", Set.of("default", "dev", "qa"))
+                .containsEntry("billing-service", Set.of("default"));
+    }
+
+    @Test
+    void listsKnownApplicationsAgainOnceTheDefaultLabelMoved() throws Exception {
+        assertThat(discovery.knownApplications()).containsExactlyInAnyOrder("publisher-service", "billing-service");
+
+        write("services/search-service/search-service.yml", "service.name: search\n");
+        commit("Add search-service");
+        scheduler.refresh().get(30, TimeUnit.SECONDS);
+
+        assertThat(discovery.knownApplications())
+                .containsExactlyInAnyOrder("publisher-service", "billing-service", "search-service");
+    }
+
+    @Test
+    void tagsRequestsOnlyWithApplicationsTheRepositoryHasConfigFor() {
+        metrics.requestFinished("publisher-service", 200, 1_000_000, 800_000, 500_000);
+        metrics.requestFinished("publisher-service", 200, 1_000_000, 800_000, 500_000);
+        metrics.requestFinished("publisher-servce", 200, 1_000_000, 800_000, 500_000);
+        metrics.requestFinished("other-service", 404, 1_000_000, 800_000, 500_000);
+
+        assertThat(registry.find("config.request").timers())
+                .extracting(timer -> timer.getId().getTag("application") + "/" + timer.getId().getTag("outcome"))
+                .containsExactlyInAnyOrder("publisher-service/SUCCESS", "other/SUCCESS", "other/CLIENT_ERROR");
+        Timer publisher = registry.get("config.request").tag("application", "publisher-service").timer();
+        assertThat(publisher.count()).isEqualTo(2);
+        assertThat(registry.find("config.request.phase").timers())
+                .allSatisfy(timer -> assertThat(timer.getId().getTags()).hasSize(1));
+    }
+
+    @Test
+    void reportsReadyOnceEveryManifestAndDiscoveredEnvironmentIsWarm() throws Exception {
+        Queue<String> warmed = new ConcurrentLinkedQueue<>();
+        HealthIndicator readiness = warmUp(
+                List.of("publisher-service/prod", "not-a-target", "billing-service/dev/master"),
+                Duration.ofSeconds(30),
+                (application, profile, label) -> {
+                    awaitRelease();
+                    warmed.add(application + "/" + profile + "/" + label);
+                    return new Environment(application, profile);
+                });
+
+        assertThat(readiness.health().getStatus()).isEqualTo(Status.DOWN);
+
+        release.countDown();
+        Health health = awaitUp(readiness);
+        // The invalid entry is skipped on its own; the rest of the manifest and discovery still count
+        assertThat(health.getDetails())
+                .containsEntry("state", WarmupStatus.State.COMPLETED)
+                .containsEntry("targets", 6)
+                .containsEntry("resolved", 6)
+                .containsEntry("failed", 0);
+        assertThat(warmed).containsExactlyInAnyOrder(
+                "publisher-service/prod/master", "billing-service/dev/master",
+                "publisher-service/default/master", "publisher-service/dev/master", "publisher-service/qa/master",
+                "billing-service/default/master");
+    }
+
+    @Test
+    void reportsReadyOnceTheWarmUpDeadlinePassed() throws Exception {
+        HealthIndicator readiness = warmUp(List.of(), Duration.ofMillis(200), (application, profile, label) -> {
+            awaitRelease();
+            return new Environment(application, profile);
+        });
+
+        Health health = awaitUp(readiness);
+        assertThat(health.getDetails())
+                .containsEntry("state", WarmupStatus.State.DEADLINE_EXCEEDED)
+                .containsEntry("targets", 4)
+                .containsEntry("resolved", 0);
+    }
+
+    private HealthIndicator warmUp(List<String> manifest, Duration deadline, EnvironmentRepository repository) {
+        MockEnvironment environment = new MockEnvironment();
+        for (int i = 0; i < manifest.size(); i++) {
+            environment.setProperty("deepintent.config-server.warmup.manifest[" + i + "]", manifest.get(i));
+        }
+        WarmupConfig config = new WarmupConfig(environment);
+        ReflectionTestUtils.setField(config, "enabled", true);
+        ReflectionTestUtils.setField(config, "discover", true);
+        ReflectionTestUtils.setField(config, "parallelism", 4);
+        ReflectionTestUtils.setField(config, "deadline", deadline);
+
+        ConfigServerProperties properties = new ConfigServerProperties();
+        properties.getEncrypt().setEnabled(false);
+        ConfigResolutionService resolutionService = new ConfigResolutionService(repository,
+                new StaticListableBeanFactory().getBeanProvider(EnvironmentEncryptor.class), properties);
+        ConfigWarmupService service = new ConfigWarmupService(config, gitConfig, new ThreadingConfig(), resolutionService,
+                beans.getBeanProvider(GitRefreshScheduler.class), beans.getBeanProvider(ApplicationDiscovery.class));
+
+        StaticListableBeanFactory warmupBeans = new StaticListableBeanFactory();
+        warmupBeans.addBean("configWarmupService", service);
+        HealthIndicator readiness = new WarmupHealthIndicator(warmupBeans.getBeanProvider(ConfigWarmupService.class));
+        service.onApplicationEvent(new ApplicationReadyEvent(new SpringApplication(), new String[0], null, Duration.ZERO));
+        return readiness;
+    }
+
+    private static Health awaitUp(HealthIndicator readiness) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        Health health = readiness.health();
+        while (health.getStatus() != Status.UP && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            health = readiness.health();
+        }
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        return health;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commit(String message) throws Exception {
+        origin.add().addFilepattern(".").call();
+        origin.commit().setMessage(message).setAuthor("test", "test@example.com").setCommitter("test", "test@example.com").call();
+    }
+
+    private void write(String path, String content) throws Exception {
+        Path file = tempDir.resolve("origin").resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+}
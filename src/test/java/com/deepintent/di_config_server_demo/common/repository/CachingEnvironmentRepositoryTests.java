@@ -0,0 +1,101 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingEnvironmentRepositoryTests {
+
+    private static final String COMMIT_A = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+    private static final String COMMIT_B = "bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb";
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicReference<String> head = new AtomicReference<>(COMMIT_A);
+
+    private final EnvironmentRepository delegate = (application, profile, label) -> {
+        loads.incrementAndGet();
+        Environment environment = new Environment(application, profile);
+        environment.setLabel(label);
+        environment.setVersion(head.get());
+        environment.add(new PropertySource("services/" + application + "/" + application + ".yml",
+                Map.of("server.port", "8080")));
+        return environment;
+    };
+
+    private final CachingEnvironmentRepository repository = new CachingEnvironmentRepository(
+            delegate, (application, profile, label) -> null, label -> head.get(), 10_000, Duration.ofMinutes(5));
+
+    @Test
+    void servesRepeatedRequestsFromCache() {
+        Environment first = repository.findOne("publisher-service", "dev", "master");
+        Environment second = repository.findOne("publisher-service", "dev", "master");
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getVersion()).isEqualTo(COMMIT_A);
+        assertThat(second.getPropertySources()).hasSize(1);
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    void loadsOnceForConcurrentIdenticalMisses() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Environment>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return repository.findOne("publisher-service", "dev", "master");
+                }));
+            }
+            start.countDown();
+            for (Future<Environment> result : results) {
+                assertThat(result.get().getVersion()).isEqualTo(COMMIT_A);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void reloadsAndEvictsOnlyWhenLabelCommitChanges() {
+        repository.findOne("publisher-service", "dev", "master");
+        repository.findOne("publisher-service", "dev", "release");
+
+        head.set(COMMIT_B);
+        Environment moved = repository.findOne("publisher-service", "dev", "master");
+
+        assertThat(moved.getVersion()).isEqualTo(COMMIT_B);
+        assertThat(loads).hasValue(3);
+        assertThat(repository.getCache().asMap().keySet())
+                .extracting(CachingEnvironmentRepository.EnvironmentKey::version)
+                .containsExactlyInAnyOrder(COMMIT_A, COMMIT_B);
+    }
+
+    @Test
+    void bypassesCacheWhenLabelCannotBeResolved() {
+        CachingEnvironmentRepository unresolved = new CachingEnvironmentRepository(
+                delegate, (application, profile, label) -> null, label -> null, 10_000, Duration.ofMinutes(5));
+
+        unresolved.findOne("publisher-service", "dev", "missing");
+        unresolved.findOne("publisher-service", "dev", "missing");
+
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,165 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import com.deepintent.di_config_server_demo.common.config.GitRefreshConfig;
+import com.deepintent.di_config_server_demo.common.config.MetricsConfig;
+import com.deepintent.di_config_server_demo.common.service.ConfigServerMetrics;
+import com.deepintent.di_config_server_demo.common.service.LabelCommitChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommitWorktreesTests {
+
+    private static final String PUBLISHER = "services/publisher-service/publisher-service.yml";
+
+    @TempDir
+    Path tempDir;
+
+    private final Queue<LabelCommitChangedEvent> events = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor();
+
+    private Git origin;
+    private GitRefreshScheduler scheduler;
+    private CommitWorktrees worktrees;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        origin = Git.init().setDirectory(tempDir.resolve("origin").toFile()).setInitialBranch("master").call();
+        write("common/application.yml", "shared: common\n");
+        write(PUBLISHER, "service.name: publisher\n");
+        write("docs/README.md", "outside the search paths\n");
+        commit("Initial config");
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.cloud.config.server.composite[0].search-paths[0]", "common")
+                .withProperty("spring.cloud.config.server.composite[0].search-paths[1]", "services/{application}");
+        GitConfig gitConfig = new GitConfig(environment);
+        ReflectionTestUtils.setField(gitConfig, "uri", tempDir.resolve("origin").toString());
+        ReflectionTestUtils.setField(gitConfig, "defaultLabel", "master");
+
+        GitRefreshConfig refreshConfig = new GitRefreshConfig();
+        ReflectionTestUtils.setField(refreshConfig, "basedir", tempDir.resolve("server").toString());
+        ReflectionTestUtils.setField(refreshConfig, "minOnDemandInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(refreshConfig, "maxWorktrees", 1);
+        ReflectionTestUtils.setField(refreshConfig, "worktreeRemovalDelay", Duration.ZERO);
+
+        ConfigServerMetrics metrics = new ConfigServerMetrics(new SimpleMeterRegistry(), new MetricsConfig(),
+                new StaticListableBeanFactory().getBeanProvider(ApplicationDiscovery.class));
+        scheduler = new GitRefreshScheduler(gitConfig, refreshConfig,
+                event -> events.add((LabelCommitChangedEvent) event), metrics);
+        scheduler.refresh().get(30, TimeUnit.SECONDS);
+        worktrees = new CommitWorktrees(scheduler, gitConfig, refreshConfig, metrics, cleaner);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worktrees.stop();
+        scheduler.stop();
+        origin.close();
+    }
+
+    @Test
+    void checksOutTheSearchedPartsOfACommit() throws Exception {
+        Path worktree = worktrees.checkout(scheduler.resolve("master"));
+
+        assertThat(Files.readString(worktree.resolve(PUBLISHER))).isEqualTo("service.name: publisher\n");
+        assertThat(worktree.resolve("common/application.yml")).exists();
+        assertThat(worktree.resolve("docs")).doesNotExist();
+        assertThat(worktrees.checkout(scheduler.resolve("master"))).isEqualTo(worktree);
+    }
+
+    @Test
+    void removesTheEvictedWorktreeOnceARefreshMovedTheLabel() throws Exception {
+        String first = scheduler.resolve("master");
+        Path firstWorktree = worktrees.checkout(first);
+
+        write(PUBLISHER, "service.name: publisher-v2\n");
+        String second = commit("Rename publisher");
+        scheduler.refresh().get(30, TimeUnit.SECONDS);
+
+        assertThat(scheduler.resolve("master")).isEqualTo(second);
+        assertThat(scheduler.getStatus().refs()).containsEntry("master", second);
+        assertThat(events).containsExactly(new LabelCommitChangedEvent("master", first, second, Set.of(PUBLISHER)));
+
+        Path secondWorktree = worktrees.checkout(second);
+        awaitRemovals();
+
+        assertThat(Files.readString(secondWorktree.resolve(PUBLISHER))).isEqualTo("service.name: publisher-v2\n");
+        assertThat(firstWorktree).doesNotExist();
+        assertThat(worktreeDirectories()).containsExactly(second);
+    }
+
+    @Test
+    void keepsAWorktreeCheckedOutAgainBeforeItsRemovalRan() throws Exception {
+        String first = scheduler.resolve("master");
+        Path firstWorktree = worktrees.checkout(first);
+        write(PUBLISHER, "service.name: publisher-v2\n");
+        String second = commit("Rename publisher");
+        scheduler.refresh().get(30, TimeUnit.SECONDS);
+
+        CountDownLatch release = new CountDownLatch(1);
+        cleaner.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // Evicts the first worktree, then the second one, while both removals wait for the cleaner
+        Path secondWorktree = worktrees.checkout(second);
+        assertThat(worktrees.checkout(first)).isEqualTo(firstWorktree);
+        release.countDown();
+        awaitRemovals();
+
+        assertThat(Files.readString(firstWorktree.resolve(PUBLISHER))).isEqualTo("service.name: publisher\n");
+        assertThat(secondWorktree).doesNotExist();
+        assertThat(worktreeDirectories()).containsExactly(first);
+    }
+
+    private void awaitRemovals() throws InterruptedException {
+        // Removals already scheduled still run after shutdown
+        cleaner.shutdown();
+        assertThat(cleaner.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private List<String> worktreeDirectories() throws Exception {
+        try (Stream<Path> directories = Files.list(tempDir.resolve("server/worktrees"))) {
+            return directories.map(directory -> directory.getFileName().toString()).toList();
+        }
+    }
+
+    private void write(String path, String content) throws Exception {
+        Path file = tempDir.resolve("origin").resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private String commit(String message) throws Exception {
+        origin.add().addFilepattern(".").call();
+        return origin.commit().setMessage(message).setAuthor("test", "test@example.com")
+                .setCommitter("test", "test@example.com").call().getName();
+    }
+}
@@ -0,0 +1,129 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import com.deepintent.di_config_server_demo.common.config.GitRefreshConfig;
+import com.deepintent.di_config_server_demo.common.config.MetricsConfig;
+import com.deepintent.di_config_server_demo.common.service.ConfigServerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObjectEnvironmentRepositoryTests {
+
+    @TempDir
+    Path tempDir;
+
+    private Git origin;
+    private GitRefreshScheduler scheduler;
+    private ObjectEnvironmentRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        origin = Git.init().setDirectory(tempDir.resolve("origin").toFile()).setInitialBranch("master").call();
+        write("common/application.yml", """
+                shared: common
+                level: common
+                ---
+                spring.config.activate.on-profile: prod
+                level: common-prod
+                """);
+        write("common/application-dev.yml", "level: common-dev\n");
+        write("services/publisher-service/publisher-service.yml", "level: service\nservice.name: publisher\n");
+        write("services/publisher-service/publisher-service-dev.yml", "level: service-dev\n");
+        write("services/billing-service/billing-service.yml", "service.name: billing\n");
+        commit("Initial config");
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.cloud.config.server.composite[0].search-paths[0]", "common")
+                .withProperty("spring.cloud.config.server.composite[0].search-paths[1]", "services/{application}");
+        GitConfig gitConfig = new GitConfig(environment);
+        ReflectionTestUtils.setField(gitConfig, "uri", tempDir.resolve("origin").toString());
+        ReflectionTestUtils.setField(gitConfig, "defaultLabel", "master");
+
+        GitRefreshConfig refreshConfig = new GitRefreshConfig();
+        ReflectionTestUtils.setField(refreshConfig, "basedir", tempDir.resolve("server").toString());
+        ReflectionTestUtils.setField(refreshConfig, "minOnDemandInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(refreshConfig, "maxSnapshots", 8);
+        ReflectionTestUtils.setField(refreshConfig, "parsedBlobMaximumWeight", 10_000L);
+
+        ConfigServerMetrics metrics = new ConfigServerMetrics(new SimpleMeterRegistry(), new MetricsConfig(),
+                new StaticListableBeanFactory().getBeanProvider(ApplicationDiscovery.class));
+        scheduler = new GitRefreshScheduler(gitConfig, refreshConfig, event -> { }, metrics);
+        scheduler.refresh().get(30, TimeUnit.SECONDS);
+        repository = new ObjectEnvironmentRepository(scheduler,
+                new ConfigTreeSnapshots(scheduler, gitConfig, refreshConfig, metrics), gitConfig, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+        origin.close();
+    }
+
+    @Test
+    void ordersSourcesLikeSpringBoot() {
+        Environment environment = repository.findOne("publisher-service", "dev", "master");
+
+        assertThat(environment.getVersion()).isEqualTo(scheduler.resolve("master"));
+        assertThat(environment.getPropertySources())
+                .extracting(source -> source.getName().substring(tempDir.resolve("origin").toString().length() + 1))
+                .containsExactly(
+                        "services/publisher-service/publisher-service-dev.yml",
+                        "common/application-dev.yml",
+                        "services/publisher-service/publisher-service.yml",
+                        "common/application.yml (document #0)");
+        assertThat(properties(environment.getPropertySources().get(0))).containsEntry("level", "service-dev");
+    }
+
+    @Test
+    void sharesCommonLayerAcrossApplicationsAndCommits() throws Exception {
+        PropertySource publisherCommon = last(repository.findOne("publisher-service", "default", "master"));
+        PropertySource billingCommon = last(repository.findOne("billing-service", "default", "master"));
+        assertThat(billingCommon).isSameAs(publisherCommon);
+
+        write("services/billing-service/billing-service.yml", "service.name: billing-v2\n");
+        commit("Change billing only");
+        scheduler.refresh().get(30, TimeUnit.SECONDS);
+
+        Environment billing = repository.findOne("billing-service", "default", "master");
+        assertThat(properties(billing.getPropertySources().get(0))).containsEntry("service.name", "billing-v2");
+        assertThat(last(billing)).isSameAs(publisherCommon);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> properties(PropertySource source) {
+        return (Map<String, Object>) source.getSource();
+    }
+
+    private static PropertySource last(Environment environment) {
+        return environment.getPropertySources().get(environment.getPropertySources().size() - 1);
+    }
+
+    private void write(String path, String content) throws Exception {
+        Path file = tempDir.resolve("origin").resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private void commit(String message) throws Exception {
+        origin.add().addFilepattern(".").call();
+        origin.commit().setMessage(message).setAuthor("test", "test@example.com").setCommitter("test", "test@example.com").call();
+    }
+}
@@ -0,0 +1,277 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.deepintent.di_config_server_demo.common.config.VaultConfig;
+import com.deepintent.di_config_server_demo.common.service.BackendBulkhead;
+import com.deepintent.di_config_server_demo.common.service.BackendSaturatedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.vault.authentication.TokenAuthentication;
+import org.springframework.vault.client.VaultEndpoint;
+import org.springframework.vault.core.VaultTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VaultSecretCacheTests {
+
+    private final MutableClock clock = new MutableClock();
+    private final ControllableExecutor readers = new ControllableExecutor();
+    private final VaultConfig config = new VaultConfig();
+    private VaultStandIn vault;
+    private VaultTemplate template;
+    private VaultSecretCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        vault = new VaultStandIn("secret");
+        vault.put("publisher-service", Map.of("db.password", "s3cret"));
+
+        ReflectionTestUtils.setField(config, "defaultTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(config, "refreshAhead", 0.8);
+        ReflectionTestUtils.setField(config, "maxStale", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(config, "idleTimeout", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(config, "readTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "readConcurrency", 4);
+        ReflectionTestUtils.setField(config, "sweepInterval", Duration.ofSeconds(5));
+
+        template = new VaultTemplate(VaultEndpoint.from(vault.getUri()),
+                new TokenAuthentication(VaultStandIn.TOKEN));
+        cache = new VaultSecretCache(new VaultTemplateSecretSource(template, "secret", 2), config, clock, readers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.stop();
+        vault.close();
+    }
+
+    @Test
+    void concurrentReadsOfTheSameKeyShareOneVaultRead() throws Exception {
+        vault.setDelay(Duration.ofMillis(300));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Map<String, Object>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("publisher-service");
+                }));
+            }
+            start.countDown();
+            for (Future<Map<String, Object>> result : results) {
+                assertThat(result.get()).containsEntry("db.password", "s3cret");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(vault.getReads("publisher-service")).isEqualTo(1);
+        cache.get("publisher-service");
+        assertThat(vault.getReads("publisher-service")).isEqualTo(1);
+    }
+
+    @Test
+    void cachesMissingKeysAndUsesTheLeaseDuration() {
+        vault.setLeaseSeconds(60);
+
+        assertThat(cache.getAll(List.of("publisher-service,dev", "publisher-service")))
+                .containsEntry("publisher-service,dev", Map.of())
+                .containsEntry("publisher-service", Map.of("db.password", "s3cret"));
+        clock.advance(Duration.ofSeconds(45));
+        cache.getAll(List.of("publisher-service,dev", "publisher-service"));
+        assertThat(vault.getReads("publisher-service,dev")).isEqualTo(1);
+        assertThat(vault.getReads("publisher-service")).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(16));
+        cache.get("publisher-service");
+        assertThat(vault.getReads("publisher-service")).isEqualTo(2);
+    }
+
+    @Test
+    void refreshesAheadOfExpiryInTheBackground() throws Exception {
+        cache.get("publisher-service");
+        vault.put("publisher-service", Map.of("db.password", "rotated"));
+        long generation = cache.getGeneration();
+
+        clock.advance(Duration.ofMinutes(4).plusSeconds(30));
+        cache.sweep().get(5, TimeUnit.SECONDS);
+
+        assertThat(vault.getReads("publisher-service")).isEqualTo(2);
+        assertThat(cache.get("publisher-service")).containsEntry("db.password", "rotated");
+        assertThat(cache.getGeneration()).isGreaterThan(generation);
+    }
+
+    @Test
+    void servesStaleValuesForABoundedTimeWhenVaultFails() {
+        cache.get("publisher-service");
+        vault.setFailing(true);
+
+        clock.advance(Duration.ofMinutes(6));
+        assertThat(cache.get("publisher-service")).containsEntry("db.password", "s3cret");
+
+        clock.advance(Duration.ofMinutes(10));
+        assertThatThrownBy(() -> cache.get("publisher-service")).isInstanceOf(VaultReadException.class);
+    }
+
+    @Test
+    void servesStaleValuesWhenVaultIsSlow() {
+        ReflectionTestUtils.setField(config, "readTimeout", Duration.ofMillis(100));
+        cache.get("publisher-service");
+        vault.put("publisher-service", Map.of("db.password", "rotated"));
+        readers.hold();
+
+        clock.advance(Duration.ofMinutes(6));
+        assertThat(cache.get("publisher-service")).containsEntry("db.password", "s3cret");
+        assertThat(vault.getReads("publisher-service")).isEqualTo(1);
+
+        readers.release();
+        assertThat(vault.getReads("publisher-service")).isEqualTo(2);
+        assertThat(cache.get("publisher-service")).containsEntry("db.password", "rotated");
+    }
+
+    @Test
+    void servesStaleValuesWhileTheVaultBulkheadIsFull() throws Exception {
+        BackendBulkhead bulkhead = new BackendBulkhead("vault", 1, Duration.ZERO, Duration.ofSeconds(1),
+                new SimpleMeterRegistry());
+        VaultSecretSource source = new VaultTemplateSecretSource(template, "secret", 2);
+        VaultSecretCache bulkheaded = new VaultSecretCache(key -> bulkhead.call(() -> source.read(key)), config, clock, readers);
+        bulkheaded.get("publisher-service");
+
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread otherRead = Thread.ofPlatform().start(() -> bulkhead.call(() -> {
+            inside.countDown();
+            try {
+                return release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        try {
+            assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+            clock.advance(Duration.ofMinutes(6));
+            assertThat(bulkheaded.get("publisher-service")).containsEntry("db.password", "s3cret");
+            assertThat(vault.getReads("publisher-service")).isEqualTo(1);
+
+            clock.advance(Duration.ofMinutes(10));
+            assertThatThrownBy(() -> bulkheaded.get("publisher-service")).isInstanceOf(BackendSaturatedException.class);
+        } finally {
+            release.countDown();
+            otherRead.join();
+            bulkheaded.stop();
+        }
+    }
+
+    /**
+     * Runs reads on the calling thread, so that they are done when the call that started them returns, or
+     * holds them until {@link #release()}.
+     */
+    private static final class ControllableExecutor extends AbstractExecutorService {
+
+        private final Queue<Runnable> held = new ConcurrentLinkedQueue<>();
+        private volatile boolean holding;
+        private volatile boolean shutdown;
+
+        void hold() {
+            holding = true;
+        }
+
+        void release() {
+            holding = false;
+            Runnable task;
+            while ((task = held.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (holding) {
+                held.add(command);
+            } else {
+                command.run();
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            List<Runnable> pending = new ArrayList<>(held);
+            held.clear();
+            return pending;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private final AtomicLong millis = new AtomicLong(Instant.parse("2025-01-01T00:00:00Z").toEpochMilli());
+
+        void advance(Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.deepintent.di_config_server_demo.common.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for Vault's key/value version 2 read API ({@code GET /v1/{backend}/data/{key}}),
+ * with switches for slow and failing responses.
+ */
+public class VaultStandIn implements AutoCloseable {
+
+    public static final String TOKEN = "stand-in-token";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final String backend;
+    private final Map<String, Map<String, Object>> secrets = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> reads = new ConcurrentHashMap<>();
+    private volatile Duration delay = Duration.ZERO;
+    private volatile boolean failing;
+    private volatile long leaseSeconds;
+
+    public VaultStandIn(String backend) throws IOException {
+        this.backend = backend;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.createContext("/v1/" + backend + "/data/", this::handle);
+        this.server.start();
+    }
+
+    public URI getUri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    public void put(String key, Map<String, Object> data) {
+        secrets.put(key, data);
+    }
+
+    public void setDelay(Duration delay) {
+        this.delay = delay;
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    public void setLeaseSeconds(long leaseSeconds) {
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    public int getReads(String key) {
+        AtomicInteger count = reads.get(key);
+        return count != null ? count.get() : 0;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String key = exchange.getRequestURI().getPath().substring(("/v1/" + backend + "/data/").length());
+        reads.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+        try {
+            if (!delay.isZero()) {
+                Thread.sleep(delay.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!TOKEN.equals(exchange.getRequestHeaders().getFirst("X-Vault-Token"))) {
+            respond(exchange, 403, Map.of("errors", new String[] {"permission denied"}));
+        } else if (failing) {
+            respond(exchange, 503, Map.of("errors", new String[] {"Vault is sealed"}));
+        } else if (!secrets.containsKey(key)) {
+            respond(exchange, 404, Map.of("errors", new String[0]));
+        } else {
+            respond(exchange, 200, Map.of(
+                    "lease_duration", leaseSeconds,
+                    "renewable", false,
+                    "data", Map.of("data", secrets.get(key), "metadata", Map.of("version", 1))));
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
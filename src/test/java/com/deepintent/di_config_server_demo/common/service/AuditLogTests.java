@@ -0,0 +1,114 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.AuditLogConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsBackRecordsNewestFirst() {
+        AuditLog auditLog = start(8);
+        try {
+            auditLog.append(1_000L, "publisher-service", "dev", "master", "abc123", 200, 1_500, 2_048, "10.0.0.1");
+            auditLog.append(2_000L, "billing-service", "prod,eu", null, null, 304, 90, 0, "10.0.0.2");
+            auditLog.append(3_000L, "publisher-service", "dev", "feature/ü-€-🚀", "def456", 404, 700, 12, "::1");
+
+            List<AuditRecord> records = auditLog.recent(10, null);
+            assertThat(records).extracting(AuditRecord::status).containsExactly(404, 304, 200);
+            assertThat(records.get(0).label()).isEqualTo("feature/ü-€-🚀");
+            assertThat(records.get(1).label()).isNull();
+            assertThat(records.get(1).commit()).isNull();
+            assertThat(records.get(2)).isEqualTo(new AuditRecord(Instant.ofEpochMilli(1_000L),
+                    "publisher-service", "dev", "master", "abc123", 200, 1_500, 2_048, "10.0.0.1"));
+
+            assertThat(auditLog.recent(10, "publisher-service")).extracting(AuditRecord::commit)
+                    .containsExactly("def456", "abc123");
+            assertThat(auditLog.recent(1, null)).hasSize(1);
+        } finally {
+            auditLog.stop();
+        }
+    }
+
+    @Test
+    void concurrentWritersRotateSegmentsWithoutLosingRecords() throws Exception {
+        AuditLog auditLog = start(64);
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String client = "client-" + t;
+                writers.add(executor.submit(() -> {
+                    go.await();
+                    for (int i = 0; i < perThread; i++) {
+                        auditLog.append(i, "app", "default", "master", "commit", 200, i, i, client);
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+
+            assertThat(auditLog.getAppendedCount()).isEqualTo(threads * perThread);
+            assertThat(auditLog.getDroppedCount()).isZero();
+            assertThat(auditLog.getSegmentCount()).isGreaterThan(1);
+            assertThat(auditLog.recent(threads * perThread + 1, null)).hasSize(threads * perThread);
+        } finally {
+            executor.shutdownNow();
+            auditLog.stop();
+        }
+    }
+
+    @Test
+    void keepsSegmentsOfEarlierRunsReadableAndBounded() {
+        AuditLog first = start(3);
+        first.append(1_000L, "publisher-service", "dev", "master", "abc123", 200, 10, 10, "10.0.0.1");
+        first.stop();
+
+        AuditLog second = start(3);
+        try {
+            second.append(2_000L, "publisher-service", "dev", "master", "def456", 200, 10, 10, "10.0.0.1");
+            assertThat(second.recent(10, null)).extracting(AuditRecord::commit).containsExactly("def456", "abc123");
+            for (int i = 0; i < 5_000; i++) {
+                second.append(i, "app", "default", "master", "commit", 200, i, i, "client");
+            }
+            assertThat(second.getSegmentCount()).isEqualTo(3);
+            assertThat(tempDir.resolve("audit").toFile().list()).hasSize(3);
+        } finally {
+            second.stop();
+        }
+    }
+
+    private AuditLog start(int maxSegments) {
+        AuditLogConfig config = new AuditLogConfig();
+        ReflectionTestUtils.setField(config, "directory", tempDir.resolve("audit").toString());
+        ReflectionTestUtils.setField(config, "segmentSize", DataSize.ofKilobytes(64));
+        ReflectionTestUtils.setField(config, "maxSegments", maxSegments);
+        ReflectionTestUtils.setField(config, "flushInterval", Duration.ofMillis(50));
+        AuditLog auditLog = new AuditLog(config);
+        auditLog.start();
+        return auditLog;
+    }
+}
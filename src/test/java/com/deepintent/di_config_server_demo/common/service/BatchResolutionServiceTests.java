@@ -0,0 +1,185 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.BatchConfig;
+import com.deepintent.di_config_server_demo.common.config.ThreadingConfig;
+import com.deepintent.di_config_server_demo.common.controller.BatchController;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.config.ConfigServerProperties;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NoSuchLabelException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchResolutionServiceTests {
+
+    private static final String COMMIT = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+
+    private final Queue<String> requestedLabels = new ConcurrentLinkedQueue<>();
+    private final Queue<String> resolvedLabels = new ConcurrentLinkedQueue<>();
+
+    private final EnvironmentRepository repository = (application, profile, label) -> {
+        requestedLabels.add(String.valueOf(label));
+        if ("missing".equals(label)) {
+            throw new NoSuchLabelException("No such label: missing");
+        }
+        if ("broken-service".equals(application)) {
+            throw new IllegalStateException("Could not parse broken-service.yml");
+        }
+        Environment environment = new Environment(application, profile);
+        environment.setLabel(label);
+        environment.setVersion(COMMIT);
+        return environment;
+    };
+
+    private final BatchConfig config = config();
+
+    private final BatchResolutionService service = service(true);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BatchController controller = new BatchController(service, config, objectMapper);
+
+    private BatchResolutionService unpinned;
+
+    @AfterEach
+    void stop() {
+        service.stop();
+        if (unpinned != null) {
+            unpinned.stop();
+        }
+    }
+
+    @Test
+    void streamsOneLinePerEntryWithItsOwnStatus() throws Exception {
+        List<JsonNode> lines = batch(List.of(
+                new BatchEntry("publisher-service", "dev", "master"),
+                new BatchEntry("publisher-service", "dev", "missing"),
+                new BatchEntry("broken-service", "dev", "master"),
+                new BatchEntry("billing-service", "prod", null)));
+
+        assertThat(lines).hasSize(4);
+        lines.sort(Comparator.comparingInt(line -> line.get("index").asInt()));
+        assertThat(lines).extracting(line -> line.get("status").asInt()).containsExactly(200, 404, 500, 200);
+
+        JsonNode ok = lines.get(0);
+        assertThat(ok.get("version").asText()).isEqualTo(COMMIT);
+        assertThat(ok.get("pinned").asBoolean()).isTrue();
+        assertThat(ok.get("environment").get("name").asText()).isEqualTo("publisher-service");
+        assertThat(ok.get("environment").get("label").asText()).isEqualTo("master");
+        assertThat(ok.has("error")).isFalse();
+
+        assertThat(lines.get(1).has("environment")).isFalse();
+        assertThat(lines.get(1).get("error").asText()).contains("missing");
+        assertThat(lines.get(2).get("error").asText()).contains("broken-service.yml");
+        assertThat(lines.get(3).has("label")).isFalse();
+    }
+
+    @Test
+    void resolvesEntriesByLabelRatherThanByPinnedCommit() throws Exception {
+        batch(List.of(
+                new BatchEntry("publisher-service", "dev", "master"),
+                new BatchEntry("billing-service", "dev", "master"),
+                new BatchEntry("billing-service", "prod", null)));
+
+        assertThat(requestedLabels).containsExactlyInAnyOrder("master", "master", "null");
+    }
+
+    @Test
+    void marksEntriesAsUnpinnedWithoutTheBackgroundRefresh() throws Exception {
+        unpinned = service(false);
+
+        List<JsonNode> lines = batch(new BatchController(unpinned, config, objectMapper), List.of(
+                new BatchEntry("publisher-service", "dev", "master"),
+                new BatchEntry("publisher-service", "dev", "missing")));
+
+        lines.sort(Comparator.comparingInt(line -> line.get("index").asInt()));
+        assertThat(lines).extracting(line -> line.get("pinned").asBoolean()).containsExactly(false, false);
+        // The commit the entry was served at, not one the batch was resolved at
+        assertThat(lines.get(0).get("version").asText()).isEqualTo(COMMIT);
+        assertThat(lines.get(1).has("version")).isFalse();
+        assertThat(resolvedLabels).isEmpty();
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedBatches() {
+        assertThatThrownBy(() -> controller.batch(List.of()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+
+        List<BatchEntry> entries = new ArrayList<>();
+        for (int i = 0; i <= config.getMaxEntries(); i++) {
+            entries.add(new BatchEntry("app-" + i, "default", "master"));
+        }
+        assertThatThrownBy(() -> controller.batch(entries))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThat(requestedLabels).isEmpty();
+    }
+
+    @Test
+    void rejectsEntriesWithoutApplicationOrProfiles() {
+        assertThatThrownBy(() -> controller.batch(List.of(new BatchEntry("publisher-service", " ", "master"))))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    private List<JsonNode> batch(List<BatchEntry> entries) throws Exception {
+        return batch(controller, entries);
+    }
+
+    private List<JsonNode> batch(BatchController controller, List<BatchEntry> entries) throws Exception {
+        ResponseEntity<StreamingResponseBody> response = controller.batch(entries);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private BatchResolutionService service(boolean pinning) {
+        return new BatchResolutionService(resolutionService(), label -> {
+            resolvedLabels.add(String.valueOf(label));
+            return "missing".equals(label) ? null : COMMIT;
+        }, config, new ThreadingConfig(), pinning);
+    }
+
+    private ConfigResolutionService resolutionService() {
+        ConfigServerProperties properties = new ConfigServerProperties();
+        properties.getEncrypt().setEnabled(false);
+        return new ConfigResolutionService(repository,
+                new DefaultListableBeanFactory().getBeanProvider(EnvironmentEncryptor.class), properties);
+    }
+
+    private static BatchConfig config() {
+        BatchConfig config = new BatchConfig();
+        ReflectionTestUtils.setField(config, "maxEntries", 4);
+        ReflectionTestUtils.setField(config, "parallelism", 4);
+        ReflectionTestUtils.setField(config, "timeout", Duration.ofSeconds(10));
+        return config;
+    }
+}
@@ -0,0 +1,100 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.BulkheadConfig;
+import com.deepintent.di_config_server_demo.common.config.GitRefreshConfig;
+import com.deepintent.di_config_server_demo.common.config.MetricsConfig;
+import com.deepintent.di_config_server_demo.common.config.ThreadingConfig;
+import com.deepintent.di_config_server_demo.common.repository.ApplicationDiscovery;
+import com.deepintent.di_config_server_demo.common.repository.BulkheadEnvironmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BulkheadsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void answersServiceUnavailableWithRetryAfterOnceTheGitBulkheadIsFull() throws Exception {
+        BackendBulkhead bulkhead = new BackendBulkhead("git", 1, Duration.ofMillis(10), Duration.ofSeconds(2), registry);
+        SearchPathLocator locator = (application, profile, label) ->
+                new SearchPathLocator.Locations(application, profile, label, null, new String[0]);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new EnvironmentController(new BulkheadEnvironmentRepository(
+                (application, profile, label) -> new Environment(application, profile), locator, bulkhead))).build();
+
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread slowLoad = Thread.ofPlatform().start(() -> bulkhead.call(() -> {
+            inside.countDown();
+            try {
+                return release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+        mockMvc.perform(get("/publisher-service/dev/master"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+        assertThat(registry.get("config.bulkhead.rejected").tag("backend", "git").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        slowLoad.join();
+        mockMvc.perform(get("/publisher-service/dev/master")).andExpect(status().isOk());
+        assertThat(bulkhead.getActive()).isZero();
+    }
+
+    @Test
+    void keepsGitCallsBelowTheCarrierCountWhenJGitMonitorsCouldPinThem() {
+        assertThat(Bulkheads.gitMaxConcurrent(64, true, 8)).isEqualTo(7);
+        assertThat(Bulkheads.gitMaxConcurrent(4, true, 8)).isEqualTo(4);
+        assertThat(Bulkheads.gitMaxConcurrent(64, true, 1)).isEqualTo(1);
+        assertThat(Bulkheads.gitMaxConcurrent(64, false, 8)).isEqualTo(64);
+    }
+
+    @Test
+    void leavesTheGitBulkheadAloneWithTheBackgroundRefresh() {
+        GitRefreshConfig refreshConfig = new GitRefreshConfig();
+        ReflectionTestUtils.setField(refreshConfig, "enabled", true);
+        ThreadingConfig threading = new ThreadingConfig();
+        ReflectionTestUtils.setField(threading, "virtualThreads", true);
+
+        Bulkheads bulkheads = new Bulkheads(config(), refreshConfig, threading, metrics());
+
+        assertThat(bulkheads.git().getMaxConcurrent()).isEqualTo(64);
+        assertThat(bulkheads.vault().getMaxConcurrent()).isEqualTo(32);
+    }
+
+    private ConfigServerMetrics metrics() {
+        return new ConfigServerMetrics(registry, new MetricsConfig(),
+                new StaticListableBeanFactory().getBeanProvider(ApplicationDiscovery.class));
+    }
+
+    private static BulkheadConfig config() {
+        BulkheadConfig config = new BulkheadConfig();
+        ReflectionTestUtils.setField(config, "gitMaxConcurrent", 64);
+        ReflectionTestUtils.setField(config, "gitMaxWait", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(config, "vaultMaxConcurrent", 32);
+        ReflectionTestUtils.setField(config, "vaultMaxWait", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(config, "retryAfter", Duration.ofSeconds(1));
+        return config;
+    }
+}
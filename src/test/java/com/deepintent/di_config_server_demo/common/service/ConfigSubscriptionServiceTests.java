@@ -0,0 +1,211 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.EnvironmentDeltaConfig;
+import com.deepintent.di_config_server_demo.common.config.GitConfig;
+import com.deepintent.di_config_server_demo.common.config.SubscriptionConfig;
+import com.deepintent.di_config_server_demo.common.controller.ConfigSubscriptionController;
+import com.deepintent.di_config_server_demo.common.repository.LabelVersionResolver;
+import com.deepintent.di_config_server_demo.common.repository.VaultSecretCache;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.config.ConfigServerProperties;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ConfigSubscriptionServiceTests {
+
+    private static final String COMMIT_A = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+    private static final String COMMIT_B = "bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb";
+
+    private final AtomicReference<String> master = new AtomicReference<>(COMMIT_A);
+
+    private final LabelVersionResolver versionResolver = label -> label == null || "master".equals(label) ? master.get() : null;
+
+    // Only publisher-service differs between the two commits
+    private final EnvironmentRepository repository = (application, profile, label) -> {
+        String version = label == null || "master".equals(label) ? master.get() : label;
+        Environment environment = new Environment(application, profile);
+        environment.setLabel(label);
+        environment.setVersion(version);
+        environment.add(new PropertySource("services/" + application + "/" + application + ".yml", Map.of(
+                "service.name", application,
+                "server.port", "publisher-service".equals(application) && COMMIT_B.equals(version) ? "9090" : "8080")));
+        return environment;
+    };
+
+    private final SubscriptionConfig config = config();
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor();
+    private final ConfigSubscriptionService service = new ConfigSubscriptionService(versionResolver,
+            new EnvironmentDeltaService(resolutionService(),
+                    new DefaultListableBeanFactory().getBeanProvider(VaultSecretCache.class), deltaConfig()),
+            gitConfig(), config, notifier);
+    private final LabelChangeWatcher watcher = new LabelChangeWatcher(versionResolver, service,
+            event -> service.onLabelCommitChanged((LabelCommitChangedEvent) event), config);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ConfigSubscriptionController(service)).build();
+
+    @AfterEach
+    void stop() {
+        watcher.stop();
+        service.stop();
+    }
+
+    @Test
+    void pushesChangesToSseSubscribersWhoseFilesChanged() throws Exception {
+        MvcResult subscription = subscribe("publisher-service");
+        assertThat(content(subscription)).contains("event:subscribed").contains(COMMIT_A);
+
+        master.set(COMMIT_B);
+        publish(Set.of("services/billing-service/billing-service.yml"));
+        assertThat(content(subscription)).doesNotContain("event:change");
+
+        publish(Set.of("common/application.yml"));
+        assertThat(content(subscription)).contains("event:change").contains(COMMIT_B);
+    }
+
+    @Test
+    void answersLongPollsWhenTheWatcherSeesTheLabelMove() throws Exception {
+        MvcResult publisher = poll("publisher-service", COMMIT_A);
+        MvcResult billing = poll("billing-service", COMMIT_A);
+        assertThat(service.activeLabels()).containsEntry("master", COMMIT_A);
+
+        // The watcher has not seen the label before, so it compares with the commit the subscribers registered at
+        master.set(COMMIT_B);
+        watcher.checkLabels();
+        flushNotifications();
+
+        mockMvc.perform(asyncDispatch(publisher))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.previousVersion").value(COMMIT_A))
+                .andExpect(jsonPath("$.version").value(COMMIT_B));
+        // The billing-service environment is the same at both commits, so its poll is still parked
+        assertThat(asyncContext(billing).getDispatchedPath()).isNull();
+    }
+
+    @Test
+    void answersLongPollsImmediatelyWhenTheClientIsBehind() throws Exception {
+        master.set(COMMIT_B);
+        MvcResult result = mockMvc.perform(get("/subscribe/publisher-service/dev/master/poll").param("version", COMMIT_A))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(COMMIT_B));
+        assertThat(service.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void answersTimedOutLongPollsWithNotModified() throws Exception {
+        MvcResult result = poll("publisher-service", COMMIT_A);
+
+        timeOut(result);
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isNotModified());
+    }
+
+    @Test
+    void sendsHeartbeatsUntilTheSubscriptionTimesOut() throws Exception {
+        MvcResult subscription = subscribe("publisher-service");
+
+        service.sendHeartbeats();
+        assertThat(content(subscription)).contains(":heartbeat");
+
+        timeOut(subscription);
+        assertThat(service.getSubscriberCount()).isZero();
+        assertThat(service.activeLabels()).isEmpty();
+
+        String content = content(subscription);
+        service.sendHeartbeats();
+        assertThat(content(subscription)).isEqualTo(content);
+    }
+
+    private MvcResult subscribe(String application) throws Exception {
+        return mockMvc.perform(get("/subscribe/{application}/dev/master", application))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private MvcResult poll(String application, String version) throws Exception {
+        return mockMvc.perform(get("/subscribe/{application}/dev/master/poll", application).param("version", version))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private void publish(Set<String> changedPaths) throws Exception {
+        service.onLabelCommitChanged(new LabelCommitChangedEvent("master", COMMIT_A, COMMIT_B, changedPaths));
+        flushNotifications();
+    }
+
+    private void flushNotifications() throws Exception {
+        notifier.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static String content(MvcResult result) throws Exception {
+        return result.getResponse().getContentAsString();
+    }
+
+    private static MockAsyncContext asyncContext(MvcResult result) {
+        return (MockAsyncContext) result.getRequest().getAsyncContext();
+    }
+
+    private static void timeOut(MvcResult result) throws Exception {
+        MockAsyncContext asyncContext = asyncContext(result);
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+    }
+
+    private ConfigResolutionService resolutionService() {
+        ConfigServerProperties properties = new ConfigServerProperties();
+        properties.getEncrypt().setEnabled(false);
+        return new ConfigResolutionService(repository,
+                new DefaultListableBeanFactory().getBeanProvider(EnvironmentEncryptor.class), properties);
+    }
+
+    private static GitConfig gitConfig() {
+        return new GitConfig(new MockEnvironment()
+                .withProperty("spring.cloud.config.server.composite[0].search-paths[0]", "common")
+                .withProperty("spring.cloud.config.server.composite[0].search-paths[1]", "services/{application}"));
+    }
+
+    private static SubscriptionConfig config() {
+        SubscriptionConfig config = new SubscriptionConfig();
+        ReflectionTestUtils.setField(config, "watchInterval", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(config, "heartbeatInterval", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(config, "sseTimeout", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(config, "longPollTimeout", Duration.ofSeconds(30));
+        return config;
+    }
+
+    private static EnvironmentDeltaConfig deltaConfig() {
+        EnvironmentDeltaConfig config = new EnvironmentDeltaConfig();
+        ReflectionTestUtils.setField(config, "maximumWeight", 1_000L);
+        ReflectionTestUtils.setField(config, "expireAfterAccess", Duration.ofMinutes(5));
+        return config;
+    }
+}
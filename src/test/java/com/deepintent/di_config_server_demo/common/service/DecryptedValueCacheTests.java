@@ -0,0 +1,179 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.DecryptionCacheConfig;
+import com.deepintent.di_config_server_demo.common.config.EnvironmentDeltaConfig;
+import com.deepintent.di_config_server_demo.common.config.RenderedResponseConfig;
+import com.deepintent.di_config_server_demo.common.config.SensitiveValueMasker;
+import com.deepintent.di_config_server_demo.common.repository.VaultSecretCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.config.ConfigServerProperties;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+import org.springframework.cloud.config.server.encryption.TextEncryptorLocator;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.security.crypto.encrypt.TextEncryptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DecryptedValueCacheTests {
+
+    private static final String COMMIT = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+
+    private final AtomicInteger decryptions = new AtomicInteger();
+
+    // Decrypts to the name of the key it was located for, so a value served under the wrong key shows
+    private final TextEncryptorLocator keyLocator = keys -> new TextEncryptor() {
+        @Override
+        public String encrypt(String text) {
+            return text;
+        }
+
+        @Override
+        public String decrypt(String encryptedText) {
+            decryptions.incrementAndGet();
+            return "plain-" + keys.getOrDefault("key", "default") + "-" + encryptedText;
+        }
+    };
+
+    private final RenderedResponseCache renderedResponses = new RenderedResponseCache(renderedResponseConfig());
+
+    private final EnvironmentDeltaService deltaService = new EnvironmentDeltaService(resolutionService(),
+            new DefaultListableBeanFactory().getBeanProvider(VaultSecretCache.class), deltaConfig());
+
+    private final DecryptedValueCache cache = new DecryptedValueCache(config(), renderedResponses, deltaProvider());
+
+    private final CachingTextEncryptorLocator locator = new CachingTextEncryptorLocator(keyLocator, cache);
+
+    @Test
+    void decryptsEachCipherTextOncePerKey() {
+        assertThat(locator.locate(Map.of("key", "primary")).decrypt("c1")).isEqualTo("plain-primary-c1");
+        assertThat(locator.locate(Map.of("key", "primary")).decrypt("c1")).isEqualTo("plain-primary-c1");
+        assertThat(decryptions).hasValue(1);
+
+        // Another key, another keystore password or another ciphertext is a miss
+        assertThat(locator.locate(Map.of("key", "secondary")).decrypt("c1")).isEqualTo("plain-secondary-c1");
+        locator.locate(Map.of("key", "primary", "secret", "keystore-a")).decrypt("c1");
+        locator.locate(Map.of("key", "primary", "secret", "keystore-b")).decrypt("c1");
+        locator.locate(Map.of("key", "primary")).decrypt("c2");
+        assertThat(decryptions).hasValue(5);
+        assertThat(cache.size()).isEqualTo(5);
+
+        // The application and profiles do not select the key
+        locator.locate(Map.of("key", "primary", "name", "billing-service", "profiles", "prod")).decrypt("c1");
+        assertThat(decryptions).hasValue(5);
+    }
+
+    @Test
+    void dropsEveryPlaintextWhenAnEncryptionKeyChanges() {
+        locator.locate(Map.of("key", "primary")).decrypt("c1");
+        renderedResponses.put("\"etag\"", RenderedResponse.of("application/json",
+                "{\"db.password\":\"plain-primary-c1\"}".getBytes(StandardCharsets.UTF_8), 1024, null));
+        deltaService.delta("publisher-service", "dev", "master", null);
+        assertThat(cache.appearsIn("url=jdbc:h2:mem;password=plain-primary-c1")).isTrue();
+
+        cache.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("server.port")));
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(renderedResponses.getCache().estimatedSize()).isEqualTo(1);
+        assertThat(deltaService.getSnapshots().estimatedSize()).isEqualTo(1);
+
+        cache.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("encrypt.key")));
+        assertThat(cache.size()).isZero();
+        assertThat(cache.appearsIn("url=jdbc:h2:mem;password=plain-primary-c1")).isFalse();
+        assertThat(renderedResponses.getCache().estimatedSize()).isZero();
+        assertThat(deltaService.getSnapshots().estimatedSize()).isZero();
+
+        // The rotated key decrypts again instead of answering from before the rotation
+        locator.locate(Map.of("key", "primary")).decrypt("c1");
+        assertThat(decryptions).hasValue(2);
+    }
+
+    @Test
+    void masksValuesByTheKeysThatHeldCipherText() {
+        SensitiveValueMasker masker = new SensitiveValueMasker(decryptedValues());
+        EnvironmentEncryptor encryptor = new KeyRecordingEnvironmentEncryptor(environment -> environment, cache);
+
+        assertThat(masker.mask("publisher.endpoint", "https://publisher.internal")).isEqualTo("https://publisher.internal");
+
+        encryptor.decrypt(environment(Map.of(
+                "publisher.endpoint", "{cipher}c1",
+                "server.port", "8080")));
+
+        // Not a sensitive name, but it held a {cipher} value
+        assertThat(masker.mask("publisher.endpoint", "https://publisher.internal")).isEqualTo("******");
+        assertThat(masker.mask("server.port", "8080")).isEqualTo("8080");
+        assertThat(masker.mask("db.password", "s3cret-password")).isEqualTo("s3cr***word");
+    }
+
+    @Test
+    void keepsPlaintextsOutOfLoggedText() {
+        SensitiveValueMasker masker = new SensitiveValueMasker(decryptedValues());
+        String line = "GET /publisher-service/dev -> plain-primary-c1";
+        assertThat(masker.isSafeToLog(line)).isTrue();
+
+        locator.locate(Map.of("key", "primary")).decrypt("c1");
+
+        assertThat(masker.isSafeToLog(line)).isFalse();
+        assertThat(masker.isSafeToLog("GET /publisher-service/dev -> 200")).isTrue();
+    }
+
+    private ObjectProvider<DecryptedValueCache> decryptedValues() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("decryptedValueCache", cache);
+        return beanFactory.getBeanProvider(DecryptedValueCache.class);
+    }
+
+    private ObjectProvider<EnvironmentDeltaService> deltaProvider() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("environmentDeltaService", deltaService);
+        return beanFactory.getBeanProvider(EnvironmentDeltaService.class);
+    }
+
+    private static Environment environment(Map<String, Object> properties) {
+        Environment environment = new Environment("publisher-service", "dev");
+        environment.setVersion(COMMIT);
+        environment.add(new PropertySource("services/publisher-service/publisher-service.yml",
+                new LinkedHashMap<>(properties)));
+        return environment;
+    }
+
+    private static ConfigResolutionService resolutionService() {
+        ConfigServerProperties properties = new ConfigServerProperties();
+        properties.getEncrypt().setEnabled(false);
+        return new ConfigResolutionService((application, profile, label) -> environment(Map.of("db.password", "plain-primary-c1")),
+                new DefaultListableBeanFactory().getBeanProvider(EnvironmentEncryptor.class), properties);
+    }
+
+    private static DecryptionCacheConfig config() {
+        DecryptionCacheConfig config = new DecryptionCacheConfig();
+        ReflectionTestUtils.setField(config, "maximumSize", 100L);
+        ReflectionTestUtils.setField(config, "expireAfterAccess", Duration.ofMinutes(5));
+        return config;
+    }
+
+    private static RenderedResponseConfig renderedResponseConfig() {
+        RenderedResponseConfig config = new RenderedResponseConfig();
+        ReflectionTestUtils.setField(config, "maximumSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(config, "expireAfterAccess", Duration.ofMinutes(5));
+        return config;
+    }
+
+    private static EnvironmentDeltaConfig deltaConfig() {
+        EnvironmentDeltaConfig config = new EnvironmentDeltaConfig();
+        ReflectionTestUtils.setField(config, "maximumWeight", 1_000L);
+        ReflectionTestUtils.setField(config, "expireAfterAccess", Duration.ofMinutes(5));
+        return config;
+    }
+}
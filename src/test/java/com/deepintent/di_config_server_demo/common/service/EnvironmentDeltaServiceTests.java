@@ -0,0 +1,203 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.EnvironmentDeltaConfig;
+import com.deepintent.di_config_server_demo.common.config.ThreadingConfig;
+import com.deepintent.di_config_server_demo.common.config.VaultConfig;
+import com.deepintent.di_config_server_demo.common.controller.EnvironmentDeltaController;
+import com.deepintent.di_config_server_demo.common.repository.VaultSecretCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.config.ConfigServerProperties;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NoSuchLabelException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EnvironmentDeltaServiceTests {
+
+    private static final String COMMIT_A = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+    private static final String COMMIT_B = "bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb";
+    private static final String UNKNOWN = "cccccccccccccccccccccccccccccccccccccccc";
+
+    private final Map<String, Map<String, Object>> commits = Map.of(
+            COMMIT_A, properties(
+                    "server.port", "8080",
+                    "feature.legacy", "true",
+                    "db.password", "{cipher}old",
+                    "db.user", "publisher"),
+            COMMIT_B, properties(
+                    "server.port", "9090",
+                    "feature.search", "on",
+                    "db.password", "{cipher}new",
+                    "db.user", "publisher"));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final EnvironmentRepository repository = (application, profile, label) -> {
+        String version = label == null || "master".equals(label) || "release/1.0".equals(label) ? COMMIT_B : label;
+        Map<String, Object> source = commits.get(version);
+        if (source == null) {
+            throw new NoSuchLabelException("No such label: " + label);
+        }
+        loads.incrementAndGet();
+        Environment environment = new Environment(application, profile);
+        environment.setLabel(label);
+        environment.setVersion(version);
+        environment.add(new PropertySource("services/" + application + "/" + application + ".yml", source));
+        return environment;
+    };
+
+    private final EnvironmentEncryptor encryptor = environment -> {
+        Environment decrypted = new Environment(environment.getName(), environment.getProfiles());
+        decrypted.setLabel(environment.getLabel());
+        decrypted.setVersion(environment.getVersion());
+        for (PropertySource source : environment.getPropertySources()) {
+            Map<Object, Object> values = new LinkedHashMap<>();
+            source.getSource().forEach((key, value) -> values.put(key,
+                    value instanceof String text && text.startsWith("{cipher}") ? "plain-" + text.substring(8) : value));
+            decrypted.add(new PropertySource(source.getName(), values));
+        }
+        return decrypted;
+    };
+
+    private final EnvironmentDeltaService service = new EnvironmentDeltaService(resolutionService(),
+            new DefaultListableBeanFactory().getBeanProvider(VaultSecretCache.class), config());
+
+    @Test
+    void reportsEverythingAsAddedWithoutSince() {
+        EnvironmentDelta delta = service.delta("publisher-service", "dev", "master", null);
+
+        assertThat(delta.fromVersion()).isNull();
+        assertThat(delta.version()).isEqualTo(COMMIT_B);
+        assertThat(delta.added()).containsOnlyKeys("server.port", "feature.search", "db.password", "db.user");
+        assertThat(delta.changed()).isEmpty();
+        assertThat(delta.removed()).isEmpty();
+    }
+
+    @Test
+    void reportsAddedChangedAndRemovedKeys() {
+        EnvironmentDelta delta = service.delta("publisher-service", "dev", "master", COMMIT_A);
+
+        assertThat(delta.fromVersion()).isEqualTo(COMMIT_A);
+        assertThat(delta.version()).isEqualTo(COMMIT_B);
+        assertThat(delta.added()).containsExactly(Map.entry("feature.search", "on"));
+        assertThat(delta.changed()).containsOnlyKeys("server.port", "db.password");
+        assertThat(delta.changed()).containsEntry("server.port", "9090");
+        assertThat(delta.removed()).containsExactly("feature.legacy");
+    }
+
+    @Test
+    void isEmptyWhenSinceIsTheCurrentCommit() {
+        EnvironmentDelta delta = service.delta("publisher-service", "dev", "master", COMMIT_B);
+
+        assertThat(delta.isEmpty()).isTrue();
+        assertThat(delta.version()).isEqualTo(COMMIT_B);
+    }
+
+    @Test
+    void comparesDecryptedValues() {
+        EnvironmentDelta delta = service.delta("publisher-service", "dev", "master", COMMIT_A);
+
+        assertThat(delta.changed()).containsEntry("db.password", "plain-new");
+        assertThat(service.snapshot("publisher-service", "dev", COMMIT_A)).containsEntry("db.password", "plain-old");
+    }
+
+    @Test
+    void loadsTheOlderCommitOnce() {
+        service.delta("publisher-service", "dev", "master", COMMIT_A);
+        service.delta("publisher-service", "dev", "master", COMMIT_A);
+
+        // The current environment is resolved per request, the older side comes from the snapshot cache
+        assertThat(loads).hasValue(3);
+        assertThat(service.getSnapshots().asMap()).containsOnlyKeys(
+                new EnvironmentDeltaService.SnapshotKey("publisher-service", "dev", COMMIT_A, 0),
+                new EnvironmentDeltaService.SnapshotKey("publisher-service", "dev", COMMIT_B, 0));
+    }
+
+    @Test
+    void takesNewSnapshotsOnceTheVaultSecretsMoved() {
+        VaultSecretCache secrets = new VaultSecretCache(key -> null, vaultConfig(), new ThreadingConfig());
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("vaultSecretCache", secrets);
+        EnvironmentDeltaService vaultAware = new EnvironmentDeltaService(resolutionService(),
+                beanFactory.getBeanProvider(VaultSecretCache.class), config());
+        try {
+            vaultAware.delta("publisher-service", "dev", "master", COMMIT_A);
+            secrets.invalidateAll();
+            vaultAware.delta("publisher-service", "dev", "master", COMMIT_A);
+
+            // Both sides carry the overlaid secrets, so neither may come from the earlier generation
+            assertThat(loads).hasValue(4);
+            assertThat(vaultAware.getSnapshots().asMap()).containsKeys(
+                    new EnvironmentDeltaService.SnapshotKey("publisher-service", "dev", COMMIT_A, 1),
+                    new EnvironmentDeltaService.SnapshotKey("publisher-service", "dev", COMMIT_B, 1));
+        } finally {
+            secrets.stop();
+        }
+    }
+
+    @Test
+    void failsForAnUnknownSinceCommit() {
+        assertThatThrownBy(() -> service.delta("publisher-service", "dev", "master", UNKNOWN))
+                .isInstanceOf(NoSuchLabelException.class);
+        assertThat(service.getSnapshots().asMap()).doesNotContainKey(
+                new EnvironmentDeltaService.SnapshotKey("publisher-service", "dev", UNKNOWN, 0));
+    }
+
+    @Test
+    void controllerValidatesSinceAndMapsUnknownCommitsToNotFound() {
+        EnvironmentDeltaController controller = new EnvironmentDeltaController(service);
+
+        assertThatThrownBy(() -> controller.delta("publisher-service", "dev", "master", "HEAD~1"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> controller.delta("publisher-service", "dev", "master", UNKNOWN))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+
+        EnvironmentDelta delta = controller.delta("publisher-service", "dev", "release(_)1.0", COMMIT_A);
+        assertThat(delta.label()).isEqualTo("release/1.0");
+        assertThat(delta.removed()).containsExactly("feature.legacy");
+    }
+
+    private ConfigResolutionService resolutionService() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("environmentEncryptor", encryptor);
+        ConfigServerProperties properties = new ConfigServerProperties();
+        properties.getEncrypt().setEnabled(true);
+        return new ConfigResolutionService(repository, beanFactory.getBeanProvider(EnvironmentEncryptor.class), properties);
+    }
+
+    private static EnvironmentDeltaConfig config() {
+        EnvironmentDeltaConfig config = new EnvironmentDeltaConfig();
+        ReflectionTestUtils.setField(config, "maximumWeight", 1_000L);
+        ReflectionTestUtils.setField(config, "expireAfterAccess", Duration.ofMinutes(5));
+        return config;
+    }
+
+    private static VaultConfig vaultConfig() {
+        VaultConfig config = new VaultConfig();
+        ReflectionTestUtils.setField(config, "readConcurrency", 1);
+        return config;
+    }
+
+    private static Map<String, Object> properties(String... keysAndValues) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,50 @@
+package com.deepintent.di_config_server_demo.common.service;
+
+import com.deepintent.di_config_server_demo.common.config.RequestLoggingConfig;
+import com.deepintent.di_config_server_demo.common.config.ResponseSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestLogDispatcherTests {
+
+    @Test
+    void dropsAndCountsEntriesThatDoNotFitTheQueue() {
+        RequestLoggingConfig config = new RequestLoggingConfig();
+        ReflectionTestUtils.setField(config, "queueCapacity", 2);
+        // Not started, so nothing drains the queue
+        RequestLogDispatcher dispatcher = new RequestLogDispatcher(config);
+
+        assertThat(dispatcher.submit(entry())).isTrue();
+        assertThat(dispatcher.submit(entry())).isTrue();
+        assertThat(dispatcher.submit(entry())).isFalse();
+        assertThat(dispatcher.submit(entry())).isFalse();
+
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void acceptsEntriesAgainOnceTheQueueIsDrained() throws Exception {
+        RequestLoggingConfig config = new RequestLoggingConfig();
+        ReflectionTestUtils.setField(config, "queueCapacity", 1);
+        RequestLogDispatcher dispatcher = new RequestLogDispatcher(config);
+        dispatcher.submit(entry());
+        assertThat(dispatcher.submit(entry())).isFalse();
+
+        dispatcher.start();
+        dispatcher.stop();
+
+        // stop() logs what is still queued before returning
+        assertThat(dispatcher.submit(entry())).isTrue();
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(1);
+    }
+
+    private static RequestLogEntry entry() {
+        return new RequestLogEntry("GET", "/publisher-service/dev/master", "publisher-service", "dev", "master",
+                200, 3, new ResponseSummary("json", 128, "publisher-service", null, List.of(), Map.of()));
+    }
+}
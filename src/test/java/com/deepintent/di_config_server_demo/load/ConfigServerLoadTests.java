@@ -0,0 +1,202 @@
+package com.deepintent.di_config_server_demo.load;
+
+import com.deepintent.di_config_server_demo.common.repository.VaultStandIn;
+import com.deepintent.di_config_server_demo.load.LoadDriver.LoadResult;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Multi-replica load tests against a local bare git repository and a Vault stand-in. Excluded from the
+ * default build; run with {@code mvn -Pload-test verify}, which packages the server first and starts each replica
+ * from its {@code -exec} jar. Sizes are set with system properties:
+ * <ul>
+ *     <li>{@code load.replicas} (2): server instances</li>
+ *     <li>{@code load.services} (20): applications under {@code services/}</li>
+ *     <li>{@code load.properties} (40): properties per service file</li>
+ *     <li>{@code load.workers} (64): concurrent callers in the cold start storm</li>
+ *     <li>{@code load.clients} (200): polling clients</li>
+ *     <li>{@code load.poll-interval} (500ms): pause between polls of one client</li>
+ *     <li>{@code load.duration} (30s): length of the polling scenarios</li>
+ * </ul>
+ * Each scenario prints throughput, latency percentiles and status counts; the commit scenario also prints how
+ * long each replica took to serve a new commit.
+ */
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConfigServerLoadTests {
+
+    private static final int REPLICAS = Integer.getInteger("load.replicas", 2);
+    private static final int SERVICES = Integer.getInteger("load.services", 20);
+    private static final int PROPERTIES = Integer.getInteger("load.properties", 40);
+    private static final int WORKERS = Integer.getInteger("load.workers", 64);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 200);
+    private static final Duration POLL_INTERVAL = duration("load.poll-interval", "500ms");
+    private static final Duration DURATION = duration("load.duration", "30s");
+    private static final Duration CONVERGENCE_TIMEOUT = Duration.ofSeconds(30);
+
+    @TempDir
+    Path tempDir;
+
+    private LoadTestConfigRepository repository;
+    private VaultStandIn vault;
+    private LoadDriver driver;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        repository = LoadTestConfigRepository.create(tempDir, SERVICES, PROPERTIES);
+        vault = new VaultStandIn("secret");
+        vault.setLeaseSeconds(300);
+        vault.put("application", Map.of("loadtest.shared-secret", "shared"));
+        for (String application : repository.getApplications()) {
+            vault.put(application, Map.of("db.password", "secret-" + application));
+        }
+        driver = new LoadDriver();
+        System.out.printf("Load test: %d replicas, %d services, %d cores%n",
+                REPLICAS, SERVICES, Runtime.getRuntime().availableProcessors());
+    }
+
+    @AfterAll
+    void tearDown() {
+        driver.close();
+        vault.close();
+        repository.close();
+    }
+
+    /**
+     * Fresh replicas without warm-up, hit by every worker at once for every application and profile.
+     */
+    @Test
+    void coldStartStorm() throws Exception {
+        try (ConfigServerReplicas replicas = ConfigServerReplicas.start(REPLICAS, repository, vault,
+                tempDir.resolve("storm"), Map.of("deepintent.config-server.warmup.enabled", "false"))) {
+            List<URI> baseUris = replicas.getBaseUris();
+            List<String> paths = environmentPaths();
+
+            LoadResult result = driver.run("cold-start-storm", WORKERS, paths.size(), Duration.ofMinutes(5),
+                    Duration.ZERO, (worker, iteration) -> {
+                        String path = paths.get((int) ((worker + iteration) % paths.size()));
+                        return driver.get(baseUris.get(worker % baseUris.size()), path, null).statusCode();
+                    });
+            report(result);
+            assertThat(result.successes()).isGreaterThanOrEqualTo((long) (result.requests() * 0.99));
+        }
+    }
+
+    /**
+     * Warmed-up replicas polled by many clients with {@code If-None-Match}, as config clients refreshing on a timer.
+     */
+    @Test
+    void steadyPolling() throws Exception {
+        try (ConfigServerReplicas replicas = ConfigServerReplicas.start(REPLICAS, repository, vault,
+                tempDir.resolve("polling"), Map.of())) {
+            replicas.awaitReady(driver.getClient(), Duration.ofMinutes(2));
+
+            LoadResult result = poll(replicas.getBaseUris(), "steady-polling", DURATION);
+            report(result);
+            assertThat(result.successes()).isGreaterThanOrEqualTo((long) (result.requests() * 0.99));
+            assertThat(result.statusCounts()).containsKey(304);
+        }
+    }
+
+    /**
+     * Polling load while a commit lands in the remote; measures when each replica first serves the new commit.
+     */
+    @Test
+    void commitDuringLoad() throws Exception {
+        try (ConfigServerReplicas replicas = ConfigServerReplicas.start(REPLICAS, repository, vault,
+                tempDir.resolve("commit"), Map.of())) {
+            replicas.awaitReady(driver.getClient(), Duration.ofMinutes(2));
+            List<URI> baseUris = replicas.getBaseUris();
+
+            CompletableFuture<LoadResult> load = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return poll(baseUris, "commit-during-load", DURATION);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(DURATION.toMillis() / 3);
+
+            String marker = UUID.randomUUID().toString();
+            long committed = System.nanoTime();
+            String commit = repository.commitMarker(marker);
+            Duration[] convergence = awaitConvergence(baseUris, marker, committed);
+
+            LoadResult result = load.get();
+            report(result);
+            for (int i = 0; i < convergence.length; i++) {
+                System.out.printf("  replica %d (%s) served %s after %d ms%n",
+                        i, baseUris.get(i), commit.substring(0, 7), convergence[i].toMillis());
+            }
+            assertThat(convergence).allSatisfy(time -> assertThat(time).isLessThan(CONVERGENCE_TIMEOUT));
+            assertThat(result.successes()).isGreaterThanOrEqualTo((long) (result.requests() * 0.99));
+        }
+    }
+
+    /**
+     * Each client sticks to one environment on one replica and sends back the last ETag it received.
+     */
+    private LoadResult poll(List<URI> baseUris, String scenario, Duration duration) throws Exception {
+        List<String> paths = environmentPaths();
+        AtomicReferenceArray<String> etags = new AtomicReferenceArray<>(CLIENTS);
+        return driver.run(scenario, CLIENTS, Long.MAX_VALUE, duration, POLL_INTERVAL, (client, iteration) -> {
+            HttpResponse<String> response = driver.get(baseUris.get(client % baseUris.size()),
+                    paths.get(client % paths.size()), etags.get(client));
+            response.headers().firstValue("ETag").ifPresent(etag -> etags.set(client, etag));
+            return response.statusCode();
+        });
+    }
+
+    private Duration[] awaitConvergence(List<URI> baseUris, String marker, long committed) throws Exception {
+        String probe = "/" + repository.getApplications().get(0) + "-default.properties";
+        Duration[] convergence = new Duration[baseUris.size()];
+        long deadline = committed + CONVERGENCE_TIMEOUT.toNanos();
+        int pending = baseUris.size();
+        while (pending > 0) {
+            for (int i = 0; i < baseUris.size(); i++) {
+                if (convergence[i] == null && driver.get(baseUris.get(i), probe, null).body().contains(marker)) {
+                    convergence[i] = Duration.ofNanos(System.nanoTime() - committed);
+                    pending--;
+                }
+            }
+            if (pending > 0 && System.nanoTime() > deadline) {
+                throw new AssertionError(pending + " replicas did not serve marker " + marker + " within "
+                        + CONVERGENCE_TIMEOUT);
+            }
+            Thread.sleep(20);
+        }
+        return convergence;
+    }
+
+    private List<String> environmentPaths() {
+        return repository.getApplications().stream()
+                .flatMap(application -> LoadTestConfigRepository.PROFILES.stream()
+                        .map(profile -> "/" + application + "/" + profile + "/master"))
+                .toList();
+    }
+
+    private static void report(LoadResult result) {
+        System.out.println(result);
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+}
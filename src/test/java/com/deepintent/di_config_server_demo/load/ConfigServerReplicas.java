@@ -0,0 +1,185 @@
+package com.deepintent.di_config_server_demo.load;
+
+import com.deepintent.di_config_server_demo.common.repository.VaultStandIn;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs N instances of the config server, each as its own JVM started from the {@code -exec} jar, on its own
+ * port and with its own mirror, worktree, composite clone and audit log directories, all against the same git
+ * remote and Vault stand-in. A replica's output goes to {@code server.log} in its directory.
+ * <p>
+ * The jar is taken from {@code load.server-jar}, which the {@code load-test} profile sets after packaging.
+ * Settings are passed as command line arguments so they override {@code application.yaml}. System properties
+ * prefixed with {@code load.server.} are passed through, e.g.
+ * {@code -Dload.server.deepintent.config-server.git-refresh.snapshot-mode=object}, and {@code load.jvm-args}
+ * is added to each replica's JVM options, e.g. {@code -Dload.jvm-args="-Xmx512m -XX:+UseZGC"}.
+ */
+class ConfigServerReplicas implements AutoCloseable {
+
+    private static final String PASS_THROUGH_PREFIX = "load.server.";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<Replica> replicas = new ArrayList<>();
+
+    static ConfigServerReplicas start(int count, LoadTestConfigRepository repository, VaultStandIn vault,
+                                      Path workDirectory, Map<String, String> overrides) throws Exception {
+        Path jar = serverJar();
+        ConfigServerReplicas replicas = new ConfigServerReplicas();
+        try {
+            for (int i = 0; i < count; i++) {
+                replicas.startReplica(jar, repository, vault, workDirectory.resolve("replica-" + i), overrides);
+            }
+            // Started all at once, so the JVMs boot in parallel
+            long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+            for (Replica replica : replicas.replicas) {
+                replicas.awaitLive(replica, deadline);
+            }
+        } catch (Exception e) {
+            replicas.close();
+            throw e;
+        }
+        return replicas;
+    }
+
+    List<URI> getBaseUris() {
+        return replicas.stream().map(Replica::baseUri).toList();
+    }
+
+    /**
+     * Blocks until every replica's readiness probe reports UP, i.e. until warm-up has finished.
+     */
+    void awaitReady(HttpClient client, Duration timeout) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Replica replica : replicas) {
+            HttpRequest probe = HttpRequest.newBuilder(replica.baseUri().resolve("/actuator/health/readiness")).GET().build();
+            while (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(replica.baseUri() + " not ready after " + timeout);
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        // Graceful shutdown first, the same signal a deployment sends
+        replicas.forEach(replica -> replica.process().destroy());
+        for (Replica replica : replicas) {
+            try {
+                if (!replica.process().waitFor(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    replica.process().destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                replica.process().destroyForcibly();
+            }
+        }
+        replicas.clear();
+    }
+
+    private void startReplica(Path jar, LoadTestConfigRepository repository, VaultStandIn vault, Path directory,
+                              Map<String, String> overrides) throws IOException {
+        int port = freePort();
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", Integer.toString(port));
+        properties.put("spring.cloud.config.server.composite[0].uri", repository.getUri());
+        properties.put("spring.cloud.config.server.composite[0].basedir", directory.resolve("composite").toString());
+        properties.put("spring.cloud.config.server.composite[0].default-label", "master");
+        properties.put("spring.cloud.config.server.composite[0].clone-on-start", "false");
+        properties.put("deepintent.config-server.git-refresh.enabled", "true");
+        properties.put("deepintent.config-server.git-refresh.basedir", directory.resolve("mirror").toString());
+        properties.put("deepintent.config-server.git-refresh.interval", "1s");
+        properties.put("deepintent.config-server.git-refresh.min-on-demand-interval", "1s");
+        properties.put("deepintent.config-server.vault.enabled", "true");
+        properties.put("deepintent.config-server.vault.uri", vault.getUri().toString());
+        properties.put("deepintent.config-server.vault.token", VaultStandIn.TOKEN);
+        properties.put("deepintent.config-server.audit-log.directory", directory.resolve("audit").toString());
+        properties.put("deepintent.config-server.audit-log.segment-size", "8MB");
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(overrides);
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(PASS_THROUGH_PREFIX))
+                .forEach(name -> properties.put(name.substring(PASS_THROUGH_PREFIX.length()), System.getProperty(name)));
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String option : System.getProperty("load.jvm-args", "").trim().split("\\s+")) {
+            if (!option.isEmpty()) {
+                command.add(option);
+            }
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        properties.forEach((name, value) -> command.add("--" + name + "=" + value));
+
+        Files.createDirectories(directory);
+        Path log = directory.resolve("server.log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        replicas.add(new Replica(process, URI.create("http://127.0.0.1:" + port), log));
+    }
+
+    /**
+     * Waits until the replica answers its liveness probe, so callers can send traffic right away.
+     */
+    private void awaitLive(Replica replica, long deadline) throws Exception {
+        HttpRequest probe = HttpRequest.newBuilder(replica.baseUri().resolve("/actuator/health/liveness")).GET().build();
+        while (true) {
+            if (!replica.process().isAlive()) {
+                throw new IllegalStateException(replica.baseUri() + " exited with status "
+                        + replica.process().exitValue() + ", see " + replica.log());
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(replica.baseUri() + " not started after " + STARTUP_TIMEOUT
+                        + ", see " + replica.log());
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static Path serverJar() {
+        String jar = System.getProperty("load.server-jar");
+        if (jar == null || !Files.isRegularFile(Path.of(jar))) {
+            throw new IllegalStateException("No server jar at '" + jar + "'; run the load tests with mvn -Pload-test verify");
+        }
+        return Path.of(jar);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Replica(Process process, URI baseUri, Path log) {
+    }
+}
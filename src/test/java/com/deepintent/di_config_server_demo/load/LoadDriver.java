@@ -0,0 +1,148 @@
+package com.deepintent.di_config_server_demo.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives closed-loop load: each worker is a virtual thread that calls its {@link Action} in a loop, pausing
+ * between calls, until it has made its calls or the scenario's time is up. Latencies are collected per worker
+ * and merged once the run is over, so measuring adds no contention.
+ */
+class LoadDriver implements AutoCloseable {
+
+    /**
+     * One client call.
+     *
+     * @return the HTTP status received
+     */
+    @FunctionalInterface
+    interface Action {
+        int call(int worker, long iteration) throws Exception;
+    }
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(executor)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    HttpClient getClient() {
+        return client;
+    }
+
+    HttpResponse<String> get(URI baseUri, String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    LoadResult run(String scenario, int workers, long callsPerWorker, Duration maxDuration, Duration pause,
+                   Action action) throws Exception {
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        AtomicLong failures = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+
+        List<Future<long[]>> results = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            results.add(executor.submit(() -> {
+                long[] latencies = new long[(int) Math.min(callsPerWorker, 1024)];
+                int count = 0;
+                for (long i = 0; i < callsPerWorker && System.nanoTime() < deadline; i++) {
+                    long callStart = System.nanoTime();
+                    try {
+                        int status = action.call(worker, i);
+                        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, latencies.length * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - callStart;
+                    if (!pause.isZero()) {
+                        Thread.sleep(pause.toMillis());
+                    }
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get(maxDuration.toMillis() + 60_000, TimeUnit.MILLISECONDS);
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(all);
+
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        return new LoadResult(scenario, all, statusCounts, failures.get(), elapsed);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    record LoadResult(String scenario, long[] sortedLatencies, Map<Integer, Long> statusCounts, long failures,
+                      long elapsedNanos) {
+
+        long requests() {
+            return sortedLatencies.length;
+        }
+
+        /**
+         * Calls answered with a 2xx or 304.
+         */
+        long successes() {
+            return statusCounts.entrySet().stream()
+                    .filter(entry -> entry.getKey() / 100 == 2 || entry.getKey() == 304)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+
+        double throughput() {
+            return requests() / (elapsedNanos / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-20s %8d req %9.1f req/s  p50 %7.2f  p90 %7.2f  p99 %7.2f  p99.9 %7.2f  max %8.2f ms"
+                            + "  statuses %s  failures %d",
+                    scenario, requests(), throughput(), percentileMillis(50), percentileMillis(90),
+                    percentileMillis(99), percentileMillis(99.9), percentileMillis(100), statusCounts, failures);
+        }
+    }
+}
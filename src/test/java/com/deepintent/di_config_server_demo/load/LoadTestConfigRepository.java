@@ -0,0 +1,116 @@
+package com.deepintent.di_config_server_demo.load;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bare git repository laid out like the production config repository, {@code common/} plus
+ * {@code services/{application}/}, with commits authored through a working clone and pushed to it.
+ * <p>
+ * {@code common/application.yml} carries {@code loadtest.marker}, which every application inherits; changing
+ * it is how the load tests observe a commit reaching each replica.
+ */
+class LoadTestConfigRepository implements AutoCloseable {
+
+    static final List<String> PROFILES = List.of("dev", "qa", "prod");
+
+    private final Path bare;
+    private final Git author;
+    private final List<String> applications;
+    private final int propertiesPerFile;
+
+    private LoadTestConfigRepository(Path bare, Git author, List<String> applications, int propertiesPerFile) {
+        this.bare = bare;
+        this.author = author;
+        this.applications = applications;
+        this.propertiesPerFile = propertiesPerFile;
+    }
+
+    static LoadTestConfigRepository create(Path directory, int services, int propertiesPerFile) throws Exception {
+        Path bare = directory.resolve("config-repo.git");
+        Git.init().setBare(true).setDirectory(bare.toFile()).setInitialBranch("master").call().close();
+        Git author = Git.cloneRepository()
+                .setURI(bare.toUri().toString())
+                .setDirectory(directory.resolve("config-repo-author").toFile())
+                .call();
+
+        List<String> applications = new ArrayList<>();
+        for (int i = 0; i < services; i++) {
+            applications.add(String.format("service-%03d", i));
+        }
+        LoadTestConfigRepository repository = new LoadTestConfigRepository(bare, author, List.copyOf(applications),
+                propertiesPerFile);
+        repository.writeLayout();
+        repository.commit("Initial config", "initial");
+        return repository;
+    }
+
+    String getUri() {
+        return bare.toUri().toString();
+    }
+
+    List<String> getApplications() {
+        return applications;
+    }
+
+    /**
+     * Commits a new {@code loadtest.marker} to {@code common/application.yml} and pushes it.
+     *
+     * @return the new commit id
+     */
+    String commitMarker(String marker) throws Exception {
+        return commit("Set marker " + marker, marker);
+    }
+
+    @Override
+    public void close() {
+        author.close();
+    }
+
+    private void writeLayout() throws Exception {
+        for (String profile : PROFILES) {
+            write("common/application-" + profile + ".yml", properties("common." + profile, propertiesPerFile / 2));
+        }
+        for (String application : applications) {
+            write("services/" + application + "/" + application + ".yml",
+                    "service.name: " + application + "\n" + properties(application, propertiesPerFile));
+            for (String profile : PROFILES) {
+                write("services/" + application + "/" + application + "-" + profile + ".yml",
+                        properties(application + "." + profile, propertiesPerFile / 4));
+            }
+        }
+    }
+
+    private String commit(String message, String marker) throws Exception {
+        write("common/application.yml", "loadtest.marker: " + marker + "\n" + properties("common", propertiesPerFile));
+        author.add().addFilepattern(".").call();
+        String commit = author.commit()
+                .setMessage(message)
+                .setAuthor("load-test", "load-test@example.com")
+                .setCommitter("load-test", "load-test@example.com")
+                .call()
+                .getName();
+        author.push().setRemote(Constants.DEFAULT_REMOTE_NAME).add("master").call();
+        return commit;
+    }
+
+    private static String properties(String prefix, int count) {
+        StringBuilder yaml = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            yaml.append(prefix).append(".property-").append(i).append(": value-").append(i).append('\n');
+        }
+        return yaml.toString();
+    }
+
+    private void write(String path, String content) throws Exception {
+        Path file = author.getRepository().getWorkTree().toPath().resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+}